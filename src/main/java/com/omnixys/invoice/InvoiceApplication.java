@@ -12,6 +12,7 @@ import org.springframework.context.annotation.Import;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.graphql.data.federation.FederationSchemaFactory;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 
@@ -24,6 +25,7 @@ import static com.omnixys.invoice.util.Banner.TEXT;
 @EnableWebSecurity
 @EnableMethodSecurity
 @EnableAsync
+@EnableScheduling
 @SuppressWarnings({"ClassUnconnectedToPackage"})
 public class InvoiceApplication {
 
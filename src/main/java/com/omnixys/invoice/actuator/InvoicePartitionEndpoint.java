@@ -0,0 +1,45 @@
+package com.omnixys.invoice.actuator;
+
+import com.omnixys.invoice.service.InvoicePartitionService;
+import com.omnixys.invoice.service.InvoicePartitionService.DetachReport;
+import com.omnixys.invoice.service.InvoicePartitionService.Partition;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Actuator-Endpunkt {@code /actuator/invoicepartitions} für die Monatspartitionen der Tabelle {@code invoice}.
+ * <ul>
+ *     <li>{@code GET}: Listet die Partitionen</li>
+ *     <li>{@code POST}: Legt fehlende künftige Partitionen an</li>
+ *     <li>{@code DELETE ?before=2024-01}: Hängt ältere, vollständig bezahlte Monate zur Archivierung ab</li>
+ * </ul>
+ * Standardmäßig nicht über HTTP freigegeben; freigeschaltet nur mit der Rolle {@code ADMIN} erreichbar.
+ */
+@Component
+@Endpoint(id = "invoicepartitions")
+@RequiredArgsConstructor
+public class InvoicePartitionEndpoint {
+    private final InvoicePartitionService partitionService;
+
+    @ReadOperation
+    public List<Partition> partitions() {
+        return partitionService.partitions();
+    }
+
+    @WriteOperation
+    public List<String> ensure() {
+        return partitionService.ensurePartitions();
+    }
+
+    @DeleteOperation
+    public DetachReport detach(final String before) {
+        return partitionService.detachBefore(YearMonth.parse(before));
+    }
+}
@@ -0,0 +1,35 @@
+package com.omnixys.invoice.actuator;
+
+import com.omnixys.invoice.service.InvoiceStatsMaintenanceService;
+import com.omnixys.invoice.service.InvoiceStatsMaintenanceService.Report;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator-Endpunkt {@code /actuator/invoicestats} für die Read-Models {@code person_invoice_stats} und
+ * {@code invoice_revenue_rollup}.
+ * <ul>
+ *     <li>{@code GET}: Prüft die Read-Models gegen die Tabelle {@code invoice}</li>
+ *     <li>{@code POST}: Baut die Read-Models neu auf</li>
+ * </ul>
+ * Standardmäßig nicht über HTTP freigegeben; freigeschaltet nur mit der Rolle {@code ADMIN} erreichbar.
+ */
+@Component
+@Endpoint(id = "invoicestats")
+@RequiredArgsConstructor
+public class InvoiceStatsEndpoint {
+    private final InvoiceStatsMaintenanceService maintenanceService;
+
+    @ReadOperation
+    public Report verify() {
+        return maintenanceService.verify();
+    }
+
+    @WriteOperation
+    public Report rebuild() {
+        return maintenanceService.rebuild();
+    }
+}
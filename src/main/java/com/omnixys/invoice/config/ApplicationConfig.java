@@ -9,7 +9,7 @@ package com.omnixys.invoice.config;
  * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
  * @version 1.0
  */
-public final class ApplicationConfig implements SecurityConfig, PaymentClientConfig {
+public final class ApplicationConfig implements SecurityConfig, PaymentClientConfig, DataSourceConfig, GraphQlConfig {
 
   /**
    * Privater Konstruktor, um Instanzen dieser Klasse zu verhindern.
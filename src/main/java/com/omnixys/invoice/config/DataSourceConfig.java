@@ -0,0 +1,89 @@
+package com.omnixys.invoice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.stream.IntStream;
+
+/**
+ * Konfiguration der Datenbankverbindungen mit Lese-Replikaten.
+ * <p>
+ * Transaktionen mit {@code readOnly = true} (z.B. im {@code InvoiceReadService}) lesen von einem Replikat, alle
+ * anderen Transaktionen verwenden die primäre Datenbank. Die Verbindung wird erst bei der ersten Anweisung geholt,
+ * wenn das {@code readOnly}-Flag der Transaktion bereits gesetzt ist.
+ * </p>
+ */
+sealed interface DataSourceConfig permits ApplicationConfig {
+    /**
+     * Logger-Objekt für DataSourceConfig.
+     */
+    Logger LOGGER = LoggerFactory.getLogger(DataSourceConfig.class);
+
+    /**
+     * Bean-Methode für die DataSource mit Lese-Replikaten. Wird nur angelegt, wenn unter {@code app.datasource.replicas}
+     * mindestens ein Replikat konfiguriert ist; sonst greift die Autokonfiguration von Spring Boot.
+     *
+     * @param dataSourceProperties Verbindungsdaten der primären Datenbank
+     * @param replicaProperties Einstellungen der Replikate
+     * @param environment Für die Hikari-Einstellungen unter {@code spring.datasource.hikari}
+     * @param meterRegistry Registry für die Routing-Metriken
+     * @return DataSource, die je nach Transaktion zur primären Datenbank oder zu einem Replikat verbindet
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "app.datasource", name = "replicas[0].url")
+    default DataSource dataSource(
+        final DataSourceProperties dataSourceProperties,
+        final ReplicaProperties replicaProperties,
+        final Environment environment,
+        final MeterRegistry meterRegistry
+    ) {
+        final var primary = dataSourceProperties.initializeDataSourceBuilder()
+            .type(HikariDataSource.class)
+            .build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName("primary");
+
+        final var replicas = IntStream.range(0, replicaProperties.getReplicas().size())
+            .mapToObj(index -> {
+                final var replica = replicaProperties.getReplicas().get(index);
+                final var dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(replica.getUrl())
+                    .username(replica.getUsername())
+                    .password(replica.getPassword())
+                    .build();
+                dataSource.setReadOnly(true);
+                dataSource.setMaximumPoolSize(replicaProperties.getMaximumPoolSize());
+                dataSource.setPoolName("replica-" + index);
+                return dataSource;
+            })
+            .toList();
+        LOGGER.info("dataSource: {} Replikat(e), stickiness={}", replicas.size(), replicaProperties.getStickiness());
+
+        final var tracker = new ReadYourWritesTracker(replicaProperties.getStickiness());
+        final var proxy = new LazyConnectionDataSourceProxy(tracker.trackWrites(primary));
+        proxy.setReadOnlyDataSource(
+            new ReplicaRoutingDataSource(
+                primary,
+                replicas,
+                tracker,
+                replicaProperties.getRetryAfter(),
+                replicaProperties.getStickiness(),
+                replicaProperties.getLagCheckInterval(),
+                meterRegistry
+            )
+        );
+        return proxy;
+    }
+}
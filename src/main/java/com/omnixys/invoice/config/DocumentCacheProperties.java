@@ -0,0 +1,21 @@
+package com.omnixys.invoice.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Größen des Caches für geparste GraphQL-Dokumente und des Speichers für Automatic Persisted Queries.
+ */
+@Setter
+@Getter
+@Configuration
+@ConfigurationProperties(prefix = "app.graphql.documents")
+public class DocumentCacheProperties {
+
+    /** Maximale Anzahl geparster und validierter Dokumente, Schlüssel ist der Abfragetext. */
+    private long maxSize = 1_000;
+    /** Maximale Anzahl registrierter Persisted Queries (SHA-256-Hash auf Abfragetext). */
+    private long persistedQueriesMaxSize = 10_000;
+}
@@ -0,0 +1,32 @@
+package com.omnixys.invoice.config;
+
+import com.omnixys.invoice.graphql.PreparsedDocumentCache;
+import graphql.analysis.MaxQueryComplexityInstrumentation;
+import graphql.analysis.MaxQueryDepthInstrumentation;
+import org.springframework.boot.autoconfigure.graphql.GraphQlSourceBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Konfiguration der GraphQL-Ausführung: Instrumentierungen, die zu tiefe oder zu umfangreiche Anfragen vor der
+ * Ausführung abweisen, und der Cache für geparste Dokumente. Die Kostenprüfung pro Rolle übernimmt
+ * {@link com.omnixys.invoice.graphql.QueryCostInstrumentation}.
+ */
+sealed interface GraphQlConfig permits ApplicationConfig {
+    @Bean
+    default MaxQueryDepthInstrumentation maxQueryDepthInstrumentation(final QueryCostProperties properties) {
+        return new MaxQueryDepthInstrumentation(properties.getMaxDepth());
+    }
+
+    @Bean
+    default MaxQueryComplexityInstrumentation maxQueryComplexityInstrumentation(final QueryCostProperties properties) {
+        return new MaxQueryComplexityInstrumentation(properties.getMaxComplexity());
+    }
+
+    /**
+     * Verwendet {@link PreparsedDocumentCache} für Parsing, Validierung und Automatic Persisted Queries.
+     */
+    @Bean
+    default GraphQlSourceBuilderCustomizer preparsedDocumentCustomizer(final PreparsedDocumentCache cache) {
+        return builder -> builder.configureGraphQl(graphQl -> graphQl.preparsedDocumentProvider(cache));
+    }
+}
@@ -0,0 +1,27 @@
+package com.omnixys.invoice.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Einstellungen des Caches für berechnete {@code InfoPayload}-Aggregate.
+ */
+@Setter
+@Getter
+@Configuration
+@ConfigurationProperties(prefix = "app.info-cache")
+public class InfoCacheProperties {
+
+    /** Maximale Anzahl an Personen bzw. Rechnungen mit gecachten Aggregaten. */
+    private long maxSize = 10_000;
+    /**
+     * Obergrenze für die Verweildauer eines Eintrags. Änderungen invalidieren gezielt; die TTL begrenzt nur
+     * verpasste Invalidierungen. Nach einer Invalidierung wird für {@code app.datasource.stickiness} nichts
+     * gespeichert, damit kein von einem Replikat gelesener Stand im Cache landet.
+     */
+    private Duration ttl = Duration.ofMinutes(10);
+}
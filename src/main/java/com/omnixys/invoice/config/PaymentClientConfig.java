@@ -1,5 +1,11 @@
 package com.omnixys.invoice.config;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.omnixys.invoice.models.dto.PaymentInfoDTO;
+import com.omnixys.invoice.service.PaymentReadService.CacheKey;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Bean;
@@ -7,6 +13,7 @@ import org.springframework.graphql.client.HttpGraphQlClient;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.UriComponentsBuilder;
 
+
 import static com.omnixys.invoice.util.Constants.GRAPHQL_ENDPOINT;
 import static com.omnixys.invoice.util.Constants.getServiceValue;
 
@@ -52,4 +59,28 @@ sealed interface PaymentClientConfig permits ApplicationConfig {
         return HttpGraphQlClient.builder(webClient).build();
     }
 
+    /**
+     * Bean-Methode für den Cache der Zahlungen des Payment-Service, begrenzt nach Größe und Verweildauer.
+     * Treffer, Fehlzugriffe und Verdrängungen werden als Metriken {@code cache.*} mit {@code cache=payments}
+     * über Actuator bereitgestellt.
+     *
+     * @param properties Einstellungen des Caches
+     * @param meterRegistry Registry für die Cache-Metriken
+     * @return Cache für Zahlungen mit Benutzer und Zahlungs-ID als Schlüssel
+     */
+    @Bean
+    default Cache<CacheKey, PaymentInfoDTO> paymentCache(
+        final PaymentClientProperties properties,
+        final MeterRegistry meterRegistry
+    ) {
+        final var settings = properties.getCache();
+        LOGGER.debug("paymentCache: maxSize={}, ttl={}", settings.getMaxSize(), settings.getTtl());
+        final Cache<CacheKey, PaymentInfoDTO> cache = Caffeine.newBuilder()
+            .maximumSize(settings.getMaxSize())
+            .expireAfterWrite(settings.getTtl())
+            .recordStats()
+            .build();
+        return CaffeineCacheMetrics.monitor(meterRegistry, cache, "payments");
+    }
+
 }
@@ -0,0 +1,37 @@
+package com.omnixys.invoice.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Einstellungen für den Zugriff auf den Payment-Service.
+ */
+@Setter
+@Getter
+@Configuration
+@ConfigurationProperties(prefix = "app.payment")
+public class PaymentClientProperties {
+
+    /** Maximale Anzahl an Zahlungs-IDs pro Anfrage an den Payment-Service. */
+    private int chunkSize = 500;
+    /** Maximale Anzahl gleichzeitiger Anfragen an den Payment-Service pro Aufruf. */
+    private int maxConcurrency = 4;
+
+    private final Cache cache = new Cache();
+
+    /**
+     * Einstellungen des In-Process-Caches für Zahlungen.
+     */
+    @Setter
+    @Getter
+    public static class Cache {
+        /** Maximale Anzahl gecachter Zahlungen. */
+        private long maxSize = 10_000;
+        /** Verweildauer eines Eintrags nach dem Laden. */
+        private Duration ttl = Duration.ofHours(1);
+    }
+}
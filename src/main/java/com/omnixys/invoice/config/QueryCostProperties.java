@@ -0,0 +1,45 @@
+package com.omnixys.invoice.config;
+
+import com.omnixys.invoice.security.enums.RoleType;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Grenzen für GraphQL-Anfragen: Tiefe, Komplexität und geschätzte Kosten pro Rolle.
+ */
+@Setter
+@Getter
+@Configuration
+@ConfigurationProperties(prefix = "app.graphql")
+public class QueryCostProperties {
+
+    /** Maximale Verschachtelungstiefe einer Anfrage. */
+    private int maxDepth = 15;
+    /** Maximale Anzahl angefragter Felder (Komplexität nach graphql-java). */
+    private int maxComplexity = 1_000;
+    /** Angenommene Länge einer Liste ohne begrenzende Argumente, z.B. {@code invoicesByCustomer}. */
+    private int defaultListSize = 20;
+    /** Angenommene Länge einer Liste auf {@code Query} ganz ohne Argumente, z.B. {@code invoices} ohne Kriterien. */
+    private int unboundedListSize = 1_000;
+    /** Feste Multiplikatoren pro Feld im Format {@code Typ.feld}, z.B. für den Fan-out von {@code Invoice.payments}. */
+    private Map<String, Integer> multipliers = new HashMap<>(Map.of(
+        "Invoice.payments", 10,
+        "Invoice.paymentDetails", 10
+    ));
+    /** Kostenbudget pro Rolle; bei mehreren Rollen gilt das größte. */
+    private Map<RoleType, Integer> budgets = new EnumMap<>(Map.of(
+        RoleType.ADMIN, 100_000,
+        RoleType.USER, 50_000,
+        RoleType.SUPREME, 10_000,
+        RoleType.ELITE, 10_000,
+        RoleType.BASIC, 5_000
+    ));
+    /** Kostenbudget für Anfragen ohne gültiges Token. */
+    private int anonymousBudget = 100;
+}
@@ -0,0 +1,101 @@
+package com.omnixys.invoice.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * Merkt sich Benutzer, die gerade geschrieben haben, damit sie ihre eigenen Änderungen sofort wieder lesen.
+ * <p>
+ * Nach dem Commit einer schreibenden Transaktion liest der Benutzer für die konfigurierte Dauer von der primären
+ * Datenbank statt von einem Replikat, bis die Replikation die Änderung mit hoher Wahrscheinlichkeit nachgezogen hat.
+ * Aufrufe ohne angemeldeten Benutzer (z.B. Kafka-Consumer) werden nicht erfasst.
+ * </p>
+ * <p>
+ * Die Vormerkung liegt nur im Speicher dieser Instanz. Landet die Folgeanfrage bei einer anderen Instanz, liest sie
+ * von einem Replikat; dort gilt dann nur die Obergrenze für die Verzögerung aus {@link ReplicaRoutingDataSource},
+ * also ebenfalls {@code stickiness}. Wer seine eigene Änderung sofort sehen muss, braucht daher Session-Affinität
+ * am Load Balancer oder liest das Ergebnis der Mutation.
+ * </p>
+ */
+final class ReadYourWritesTracker {
+    private final Cache<String, Boolean> recentWriters;
+
+    ReadYourWritesTracker(final Duration stickiness) {
+        recentWriters = Caffeine.newBuilder()
+            .expireAfterWrite(stickiness)
+            .build();
+    }
+
+    /**
+     * Prüft, ob der aktuelle Benutzer innerhalb des Zeitfensters geschrieben hat.
+     *
+     * @return {@code true}, wenn von der primären Datenbank gelesen werden muss
+     */
+    boolean isSticky() {
+        final var username = currentUsername();
+        return username != null && recentWriters.getIfPresent(username) != null;
+    }
+
+    /**
+     * Umhüllt die primäre DataSource, sodass jede schreibende Transaktion, die eine Verbindung holt, den aktuellen
+     * Benutzer nach dem Commit vormerkt.
+     *
+     * @param primary Die primäre DataSource
+     * @return Die umhüllte DataSource
+     */
+    DataSource trackWrites(final DataSource primary) {
+        return new DelegatingDataSource(primary) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                registerWrite();
+                return super.getConnection();
+            }
+
+            @Override
+            public Connection getConnection(final String username, final String password) throws SQLException {
+                registerWrite();
+                return super.getConnection(username, password);
+            }
+        };
+    }
+
+    private void registerWrite() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+            || TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+            || TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        final var username = currentUsername();
+        if (username == null) {
+            return;
+        }
+
+        // einmal pro Transaktion registrieren
+        TransactionSynchronizationManager.bindResource(this, username);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recentWriters.put(username, Boolean.TRUE);
+            }
+
+            @Override
+            public void afterCompletion(final int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(ReadYourWritesTracker.this);
+            }
+        });
+    }
+
+    private static String currentUsername() {
+        final var authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null || !authentication.isAuthenticated() ? null : authentication.getName();
+    }
+}
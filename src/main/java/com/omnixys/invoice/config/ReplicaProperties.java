@@ -0,0 +1,48 @@
+package com.omnixys.invoice.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Einstellungen für Lese-Replikate der Datenbank.
+ * <p>
+ * Ohne konfigurierte Replikate wird ausschließlich die primäre Datenbank aus {@code spring.datasource} verwendet.
+ * </p>
+ */
+@Setter
+@Getter
+@Configuration
+@ConfigurationProperties(prefix = "app.datasource")
+public class ReplicaProperties {
+
+    /** Lese-Replikate, die reihum für {@code readOnly}-Transaktionen verwendet werden. */
+    private List<Replica> replicas = new ArrayList<>();
+    /**
+     * Zeitraum nach einer schreibenden Transaktion, in dem ein Benutzer weiterhin von der primären Datenbank liest.
+     * Gilt nur innerhalb derselben Instanz und ist zugleich die maximale Verzögerung eines verwendeten Replikats.
+     */
+    private Duration stickiness = Duration.ofSeconds(5);
+    /** Mindestabstand zwischen zwei Messungen der Verzögerung eines Replikats. */
+    private Duration lagCheckInterval = Duration.ofSeconds(1);
+    /** Zeitraum, für den ein nicht erreichbares Replikat übersprungen wird. */
+    private Duration retryAfter = Duration.ofSeconds(30);
+    /** Maximale Anzahl an Verbindungen pro Replikat. */
+    private int maximumPoolSize = 10;
+
+    /**
+     * Verbindungsdaten eines Lese-Replikats.
+     */
+    @Setter
+    @Getter
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
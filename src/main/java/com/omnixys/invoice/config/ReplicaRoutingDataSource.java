@@ -0,0 +1,170 @@
+package com.omnixys.invoice.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * DataSource für {@code readOnly}-Transaktionen: verteilt die Verbindungen reihum auf die Replikate.
+ * <p>
+ * Auf die primäre Datenbank wird ausgewichen, wenn der Benutzer gerade geschrieben hat (siehe
+ * {@link ReadYourWritesTracker}) oder kein Replikat erreichbar ist. Ein Replikat, bei dem der Verbindungsaufbau
+ * fehlschlägt, wird für {@code retryAfter} übersprungen und danach erneut versucht.
+ * </p>
+ * <p>
+ * Höchstens alle {@code lagCheckInterval} wird die Verzögerung eines Replikats über
+ * {@code pg_last_xact_replay_timestamp()} gemessen. Liegt sie über {@code maxLag}, wird das Replikat bis zur nächsten
+ * Messung übersprungen. Ein Replikat ohne ausstehendes WAL gilt unabhängig vom Zeitstempel als aktuell, da der
+ * Zeitstempel bei ruhender primärer Datenbank nicht fortschreitet.
+ * </p>
+ */
+final class ReplicaRoutingDataSource extends AbstractDataSource {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+    private static final String LAG_QUERY = """
+SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+            ELSE coalesce(extract(epoch FROM now() - pg_last_xact_replay_timestamp()), 0) END
+""";
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final ReadYourWritesTracker tracker;
+    private final long retryAfterNanos;
+    private final long maxLagNanos;
+    private final long lagCheckIntervalNanos;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter routed;
+    private final Counter sticky;
+    private final Counter fallback;
+
+    ReplicaRoutingDataSource(
+        final DataSource primary,
+        final List<? extends DataSource> replicas,
+        final ReadYourWritesTracker tracker,
+        final Duration retryAfter,
+        final Duration maxLag,
+        final Duration lagCheckInterval,
+        final MeterRegistry meterRegistry
+    ) {
+        this.primary = primary;
+        this.replicas = replicas.stream()
+            .map(Replica::new)
+            .toList();
+        this.tracker = tracker;
+        retryAfterNanos = retryAfter.toNanos();
+        maxLagNanos = maxLag.toNanos();
+        lagCheckIntervalNanos = lagCheckInterval.toNanos();
+
+        routed = counter(meterRegistry, "replica", "routed");
+        sticky = counter(meterRegistry, "primary", "sticky");
+        fallback = counter(meterRegistry, "primary", "fallback");
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (tracker.isSticky()) {
+            sticky.increment();
+            return primary.getConnection();
+        }
+
+        final var start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            final var replica = replicas.get((start + i) % replicas.size());
+            if (!replica.isAvailable()) {
+                continue;
+            }
+            final var checkLag = replica.claimLagCheck(lagCheckIntervalNanos);
+            if (!checkLag && replica.isLagging()) {
+                continue;
+            }
+            try {
+                final var connection = replica.dataSource().getConnection();
+                if (checkLag && isLagging(replica, connection)) {
+                    connection.close();
+                    continue;
+                }
+                routed.increment();
+                return connection;
+            } catch (SQLException e) {
+                LOGGER.warn("getConnection: Replikat nicht erreichbar, wird für {} ms übersprungen: {}",
+                    retryAfterNanos / 1_000_000, e.getMessage());
+                replica.markUnavailable(retryAfterNanos);
+            }
+        }
+
+        fallback.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(final String username, final String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    private boolean isLagging(final Replica replica, final Connection connection) throws SQLException {
+        final long lagNanos;
+        try (var statement = connection.createStatement(); var resultSet = statement.executeQuery(LAG_QUERY)) {
+            resultSet.next();
+            lagNanos = (long) (resultSet.getDouble(1) * 1_000_000_000);
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
+
+        final var lagging = lagNanos > maxLagNanos;
+        if (replica.setLagging(lagging) != lagging) {
+            LOGGER.info("isLagging: Replikat {} ms hinter der primären Datenbank, {}",
+                lagNanos / 1_000_000, lagging ? "wird übersprungen" : "wird wieder verwendet");
+        }
+        return lagging;
+    }
+
+    private static Counter counter(final MeterRegistry meterRegistry, final String target, final String reason) {
+        return Counter.builder("invoice.datasource.read.connections")
+            .description("Verbindungen für readOnly-Transaktionen nach Ziel")
+            .tag("target", target)
+            .tag("reason", reason)
+            .register(meterRegistry);
+    }
+
+    private record Replica(DataSource dataSource, AtomicLong unavailableUntil, AtomicLong lagCheckAt, AtomicBoolean lagging) {
+        Replica(final DataSource dataSource) {
+            this(dataSource, new AtomicLong(System.nanoTime()), new AtomicLong(System.nanoTime()), new AtomicBoolean());
+        }
+
+        boolean isAvailable() {
+            return System.nanoTime() - unavailableUntil.get() >= 0;
+        }
+
+        void markUnavailable(final long retryAfterNanos) {
+            unavailableUntil.set(System.nanoTime() + retryAfterNanos);
+        }
+
+        /**
+         * Reserviert die fällige Messung der Verzögerung für genau einen Aufrufer.
+         */
+        boolean claimLagCheck(final long intervalNanos) {
+            final var now = System.nanoTime();
+            final var due = lagCheckAt.get();
+            return now - due >= 0 && lagCheckAt.compareAndSet(due, now + intervalNanos);
+        }
+
+        boolean isLagging() {
+            return lagging.get();
+        }
+
+        boolean setLagging(final boolean value) {
+            return lagging.getAndSet(value);
+        }
+    }
+}
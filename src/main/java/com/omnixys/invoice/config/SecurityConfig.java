@@ -1,5 +1,7 @@
 package com.omnixys.invoice.config;
 
+import com.omnixys.invoice.actuator.InvoicePartitionEndpoint;
+import com.omnixys.invoice.actuator.InvoiceStatsEndpoint;
 import com.omnixys.invoice.security.JwtToUserDetailsConverter;
 import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.boot.actuate.health.HealthEndpoint;
@@ -51,6 +53,11 @@ sealed interface SecurityConfig permits ApplicationConfig {
                   // Actuator: Prometheus for monitoring
                   EndpointRequest.to(PrometheusScrapeEndpoint.class)
               ).permitAll()
+              // Actuator: Wartung der Read-Models und der Partitionen verändert Daten, daher nur für Administratoren
+              .requestMatchers(
+                  EndpointRequest.to(InvoiceStatsEndpoint.class),
+                  EndpointRequest.to(InvoicePartitionEndpoint.class)
+              ).hasRole("ADMIN")
               // OpenAPI or Swagger UI and GraphiQL
               .requestMatchers(GET, "/v3/api-docs.yaml", "/v3/api-docs", "/graphiql").permitAll()
               .requestMatchers("/error", "/error/**").permitAll()
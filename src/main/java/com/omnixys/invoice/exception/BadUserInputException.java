@@ -0,0 +1,23 @@
+package com.omnixys.invoice.exception;
+
+/**
+ * Ausnahme, die ausgelöst wird, wenn die Eingaben einer Anfrage ungültig sind.
+ * <p>
+ * Beispiele sind nicht dekodierbare Cursor oder widersprüchliche Suchkriterien.
+ * </p>
+ *
+ * @since 17.10.2026
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @version 1.0
+ */
+public class BadUserInputException extends RuntimeException {
+
+  /**
+   * Erstellt eine neue `BadUserInputException` mit einer Fehlermeldung.
+   *
+   * @param message Die Beschreibung der ungültigen Eingabe.
+   */
+  public BadUserInputException(final String message) {
+    super(message);
+  }
+}
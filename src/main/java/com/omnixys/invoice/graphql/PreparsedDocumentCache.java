@@ -0,0 +1,113 @@
+package com.omnixys.invoice.graphql;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.omnixys.invoice.config.DocumentCacheProperties;
+import com.omnixys.invoice.tracing.LoggerPlus;
+import com.omnixys.invoice.tracing.LoggerPlusFactory;
+import graphql.ExecutionInput;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+import graphql.execution.preparsed.persisted.ApolloPersistedQuerySupport;
+import graphql.execution.preparsed.persisted.PersistedQueryCache;
+import graphql.execution.preparsed.persisted.PersistedQueryCacheMiss;
+import graphql.execution.preparsed.persisted.PersistedQueryNotFound;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import static graphql.execution.preparsed.persisted.PersistedQuerySupport.PERSISTED_QUERY_MARKER;
+
+/**
+ * Cache für geparste und validierte GraphQL-Dokumente mit Unterstützung für Automatic Persisted Queries (APQ).
+ * <p>
+ * Dokumente werden nach ihrem Abfragetext gecacht, sodass wiederkehrende Abfragen weder geparst noch validiert
+ * werden. Schickt ein Client nur den SHA-256-Hash ({@code extensions.persistedQuery}), wird der Abfragetext im
+ * begrenzten APQ-Speicher nachgeschlagen; ist er unbekannt, antwortet der Server mit {@code PersistedQueryNotFound}
+ * und der Client registriert die Abfrage mit Hash und Text. Fehlerhafte Dokumente werden nicht gecacht.
+ * </p>
+ * <p>
+ * Treffer und Fehlzugriffe beider Caches werden als Metriken {@code cache.*} mit {@code cache=graphql.documents}
+ * bzw. {@code cache=graphql.persisted-queries} bereitgestellt.
+ * </p>
+ */
+@Component
+public class PreparsedDocumentCache implements PreparsedDocumentProvider {
+    private final Cache<String, PreparsedDocumentEntry> documents;
+    private final Cache<Object, String> persistedQueries;
+    private final PreparsedDocumentProvider persistedQuerySupport;
+    private final LoggerPlusFactory factory;
+    private LoggerPlus logger() {
+        return factory.getLogger(getClass());
+    }
+
+    public PreparsedDocumentCache(
+        final DocumentCacheProperties properties,
+        final MeterRegistry meterRegistry,
+        final LoggerPlusFactory factory
+    ) {
+        this.factory = factory;
+        documents = CaffeineCacheMetrics.monitor(
+            meterRegistry,
+            Caffeine.newBuilder().maximumSize(properties.getMaxSize()).recordStats().<String, PreparsedDocumentEntry>build(),
+            "graphql.documents"
+        );
+        persistedQueries = CaffeineCacheMetrics.monitor(
+            meterRegistry,
+            Caffeine.newBuilder().maximumSize(properties.getPersistedQueriesMaxSize()).recordStats().<Object, String>build(),
+            "graphql.persisted-queries"
+        );
+        persistedQuerySupport = new ApolloPersistedQuerySupport(new PersistedQueryStore());
+    }
+
+    @Override
+    public CompletableFuture<PreparsedDocumentEntry> getDocumentAsync(
+        final ExecutionInput executionInput,
+        final Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction
+    ) {
+        // ohne Hash ruft die APQ-Unterstützung direkt die übergebene Funktion auf
+        return persistedQuerySupport.getDocumentAsync(executionInput, input -> {
+            final var cached = documents.getIfPresent(input.getQuery());
+            if (cached != null) {
+                return cached;
+            }
+            final var entry = parseAndValidateFunction.apply(input);
+            if (!entry.hasErrors()) {
+                documents.put(input.getQuery(), entry);
+            }
+            return entry;
+        });
+    }
+
+    /**
+     * Ordnet Hashes ihrem Abfragetext zu. Die Dokumente selbst liegen nur einmal im Dokument-Cache.
+     */
+    private final class PersistedQueryStore implements PersistedQueryCache {
+        @Override
+        public CompletableFuture<PreparsedDocumentEntry> getPersistedQueryDocumentAsync(
+            final Object persistedQueryId,
+            final ExecutionInput executionInput,
+            final PersistedQueryCacheMiss onCacheMiss
+        ) throws PersistedQueryNotFound {
+            final var known = persistedQueries.getIfPresent(persistedQueryId);
+            if (known != null) {
+                return CompletableFuture.completedFuture(onCacheMiss.apply(known));
+            }
+
+            final var query = executionInput.getQuery();
+            if (query == null || query.isBlank() || PERSISTED_QUERY_MARKER.equals(query)) {
+                throw new PersistedQueryNotFound(persistedQueryId);
+            }
+            // ApolloPersistedQuerySupport hat den Hash bereits gegen den Abfragetext geprüft
+            logger().debug("getPersistedQueryDocumentAsync: registriere hash={}", persistedQueryId);
+            final var entry = onCacheMiss.apply(query);
+            if (!entry.hasErrors()) {
+                persistedQueries.put(persistedQueryId, query);
+            }
+            return CompletableFuture.completedFuture(entry);
+        }
+    }
+}
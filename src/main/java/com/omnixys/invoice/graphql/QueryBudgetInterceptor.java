@@ -0,0 +1,49 @@
+package com.omnixys.invoice.graphql;
+
+import com.omnixys.invoice.config.QueryCostProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.graphql.server.WebGraphQlInterceptor;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+import static com.omnixys.invoice.security.enums.RoleType.ROLE_PREFIX;
+
+/**
+ * Legt das Kostenbudget des Aufrufers im {@code GraphQLContext} ab, solange der Security-Kontext des Requests noch
+ * am Thread hängt. Ausgewertet wird es von {@link QueryCostInstrumentation}.
+ */
+@Component
+@RequiredArgsConstructor
+public class QueryBudgetInterceptor implements WebGraphQlInterceptor {
+    private final QueryCostProperties properties;
+
+    @Override
+    public Mono<WebGraphQlResponse> intercept(final WebGraphQlRequest request, final Chain chain) {
+        final var budget = budget();
+        request.configureExecutionInput((_, builder) ->
+            builder.graphQLContext(Map.of(QueryCostInstrumentation.BUDGET, budget)).build());
+        return chain.next(request);
+    }
+
+    private int budget() {
+        final var authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return properties.getAnonymousBudget();
+        }
+        return authentication.getAuthorities().stream()
+            .map(GrantedAuthority::getAuthority)
+            .filter(authority -> authority.startsWith(ROLE_PREFIX))
+            .map(authority -> authority.substring(ROLE_PREFIX.length()))
+            .flatMap(role -> properties.getBudgets().entrySet().stream()
+                .filter(entry -> entry.getKey().name().equals(role))
+                .map(Map.Entry::getValue))
+            .max(Integer::compare)
+            .orElse(properties.getAnonymousBudget());
+    }
+}
@@ -0,0 +1,161 @@
+package com.omnixys.invoice.graphql;
+
+import com.omnixys.invoice.config.QueryCostProperties;
+import com.omnixys.invoice.tracing.LoggerPlus;
+import com.omnixys.invoice.tracing.LoggerPlusFactory;
+import graphql.ExecutionResult;
+import graphql.execution.AbortExecutionException;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimpleInstrumentationContext;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.normalized.ExecutableNormalizedField;
+import graphql.schema.GraphQLList;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.GraphQLTypeUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static com.omnixys.invoice.util.Constants.DEFAULT_PAGE_SIZE;
+import static com.omnixys.invoice.util.Constants.MAX_PAGE_SIZE;
+
+/**
+ * Schätzt die Kosten einer GraphQL-Operation und weist sie vor der Ausführung ab, wenn sie das Budget des Aufrufers
+ * übersteigen.
+ * <p>
+ * Die Kosten eines Feldes sind {@code multiplikator * (1 + Kosten der Unterfelder)}. Der Multiplikator ist für
+ * Skalare und Objekte 1, für Listen die erwartete Länge: die Größe eines Listenarguments (z.B. {@code ids}),
+ * {@code first} der übergeordneten Connection, ein konfigurierter Wert (z.B. {@code Invoice.payments}) oder
+ * {@link QueryCostProperties#getDefaultListSize()}. Listen auf {@code Query} ganz ohne Argumente lesen potentiell die
+ * ganze Tabelle und zählen mit {@link QueryCostProperties#getUnboundedListSize()}. Introspektion ist kostenlos.
+ * </p>
+ * <p>
+ * Die Kosten jeder zugelassenen Operation werden als Histogramm {@code graphql.query.cost} exportiert.
+ * </p>
+ */
+@Component
+public class QueryCostInstrumentation extends SimplePerformantInstrumentation {
+    /**
+     * Schlüssel des Budgets im {@code GraphQLContext}, gesetzt von {@link QueryBudgetInterceptor}.
+     */
+    public static final String BUDGET = QueryCostInstrumentation.class.getName() + ".budget";
+
+    private final QueryCostProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Counter rejected;
+    private final LoggerPlusFactory factory;
+    private LoggerPlus logger() {
+        return factory.getLogger(getClass());
+    }
+
+    public QueryCostInstrumentation(
+        final QueryCostProperties properties,
+        final MeterRegistry meterRegistry,
+        final LoggerPlusFactory factory
+    ) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.factory = factory;
+        rejected = Counter.builder("graphql.query.rejected")
+            .description("Wegen überschrittenem Kostenbudget abgewiesene GraphQL-Operationen")
+            .tag("reason", "cost")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecuteOperation(
+        final InstrumentationExecuteOperationParameters parameters,
+        final InstrumentationState state
+    ) {
+        final var executionContext = parameters.getExecutionContext();
+        final var operation = executionContext.getNormalizedQueryTree().get();
+        final var schema = executionContext.getGraphQLSchema();
+        final var cost = operation.getTopLevelFields().stream()
+            .mapToLong(field -> cost(field, schema))
+            .reduce(0, QueryCostInstrumentation::add);
+        final int budget = executionContext.getGraphQLContext().getOrDefault(BUDGET, properties.getAnonymousBudget());
+
+        if (cost > budget) {
+            rejected.increment();
+            logger().warn("beginExecuteOperation: Operation {} abgewiesen, cost={} budget={}",
+                operation.getOperationName(), cost, budget);
+            throw new AbortExecutionException(
+                "Die geschätzten Kosten der Anfrage (%d) überschreiten das erlaubte Budget (%d).".formatted(cost, budget)
+            );
+        }
+
+        logger().debug("beginExecuteOperation: operation={} cost={} budget={}", operation.getOperationName(), cost, budget);
+        DistributionSummary.builder("graphql.query.cost")
+            .description("Geschätzte Kosten zugelassener GraphQL-Operationen")
+            .tag("operation", operation.getOperation().name().toLowerCase())
+            .publishPercentileHistogram()
+            .register(meterRegistry)
+            .record(cost);
+        return SimpleInstrumentationContext.noOp();
+    }
+
+    private long cost(final ExecutableNormalizedField field, final GraphQLSchema schema) {
+        if (field.getName().startsWith("__")) {
+            return 0;
+        }
+        final var children = field.getChildren().stream()
+            .mapToLong(child -> cost(child, schema))
+            .reduce(0, QueryCostInstrumentation::add);
+        return multiply(multiplier(field, schema), add(1, children));
+    }
+
+    // Kosten sind nie negativ; tief verschachtelte Listen werden gesättigt statt überzulaufen
+    private static long add(final long a, final long b) {
+        final var sum = a + b;
+        return sum < 0 ? Long.MAX_VALUE : sum;
+    }
+
+    private static long multiply(final long a, final long b) {
+        return b != 0 && a > Long.MAX_VALUE / b ? Long.MAX_VALUE : a * b;
+    }
+
+    private long multiplier(final ExecutableNormalizedField field, final GraphQLSchema schema) {
+        final var configured = field.getObjectTypeNames().stream()
+            .map(type -> properties.getMultipliers().get(type + "." + field.getName()))
+            .filter(Objects::nonNull)
+            .findFirst();
+        if (configured.isPresent()) {
+            return configured.get();
+        }
+        if (!(GraphQLTypeUtil.unwrapNonNull(field.getType(schema)) instanceof GraphQLList)) {
+            return 1;
+        }
+
+        final var arguments = field.getResolvedArguments();
+        final var listArgument = arguments.values().stream()
+            .filter(Collection.class::isInstance)
+            .mapToLong(value -> ((Collection<?>) value).size())
+            .max();
+        if (listArgument.isPresent()) {
+            return listArgument.getAsLong();
+        }
+        final var parent = field.getParent();
+        if (parent != null && parent.getResolvedArguments().containsKey("first")) {
+            final var first = parent.getResolvedArguments().get("first");
+            return first instanceof Integer size ? Math.clamp(size, 0, MAX_PAGE_SIZE) : DEFAULT_PAGE_SIZE;
+        }
+        if (field.getLevel() == 1 && isEmpty(arguments)) {
+            return properties.getUnboundedListSize();
+        }
+        return properties.getDefaultListSize();
+    }
+
+    private static boolean isEmpty(final Map<String, Object> arguments) {
+        return arguments.values().stream().allMatch(value -> value == null
+            || value instanceof Map<?, ?> map && map.values().stream().allMatch(v -> v == null)
+            || value instanceof List<?> list && list.isEmpty());
+    }
+}
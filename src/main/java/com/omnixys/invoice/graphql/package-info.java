@@ -0,0 +1,4 @@
+/**
+ * Querschnittsfunktionen der GraphQL-Schnittstelle, z.B. die Kostenprüfung von Anfragen vor der Ausführung.
+ */
+package com.omnixys.invoice.graphql;
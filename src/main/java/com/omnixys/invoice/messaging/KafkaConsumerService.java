@@ -1,6 +1,11 @@
 package com.omnixys.invoice.messaging;
 
 import com.omnixys.invoice.models.dto.NewPaymentIdDTO;
+import com.omnixys.invoice.models.events.InvoiceChangedEvent;
+import com.omnixys.invoice.models.events.InvoicePartitionDetachedEvent;
+import com.omnixys.invoice.models.events.InvoiceStatusChangedEvent;
+import com.omnixys.invoice.models.events.InvoicesCreatedEvent;
+import com.omnixys.invoice.service.InvoiceCacheService;
 import com.omnixys.invoice.service.InvoiceWriteService;
 import com.omnixys.invoice.tracing.LoggerPlus;
 import com.omnixys.invoice.tracing.LoggerPlusFactory;
@@ -31,7 +36,11 @@ import static com.omnixys.invoice.messaging.KafkaTopicProperties.TOPIC_ALL_START
 import static com.omnixys.invoice.messaging.KafkaTopicProperties.TOPIC_INVOICE_RESTART_ORCHESTRATOR;
 import static com.omnixys.invoice.messaging.KafkaTopicProperties.TOPIC_INVOICE_SHUTDOWN_ORCHESTRATOR;
 import static com.omnixys.invoice.messaging.KafkaTopicProperties.TOPIC_INVOICE_START_ORCHESTRATOR;
+import static com.omnixys.invoice.messaging.KafkaTopicProperties.TOPIC_INVOICE_CACHE_INVALIDATE;
 import static com.omnixys.invoice.messaging.KafkaTopicProperties.TOPIC_INVOICE_CREATE_PAYMENT;
+import static com.omnixys.invoice.messaging.KafkaTopicProperties.TOPIC_INVOICE_PARTITION_DETACHED;
+import static com.omnixys.invoice.messaging.KafkaTopicProperties.TOPIC_INVOICE_STATUS_CHANGED;
+import static com.omnixys.invoice.messaging.KafkaTopicProperties.TOPIC_INVOICES_CREATED;
 
 @Service
 @RequiredArgsConstructor
@@ -39,6 +48,7 @@ public class KafkaConsumerService {
 
     private final ApplicationContext context;
     private final InvoiceWriteService invoiceWriteService;
+    private final InvoiceCacheService invoiceCacheService;
     private final Tracer tracer;
     private final LoggerPlusFactory factory;
     private LoggerPlus logger() {
@@ -103,6 +113,69 @@ public class KafkaConsumerService {
         return header != null ? new String(header.value(), StandardCharsets.UTF_8) : null;
     }
 
+    /**
+     * Empfängt Rechnungsänderungen aller Replikate.
+     * <p>
+     * Jede Instanz nutzt eine eigene Consumer-Gruppe, damit jedes Replikat alle Invalidierungen erhält.
+     * </p>
+     */
+    @Observed(name = "kafka-consume.invoice.cache-invalidate")
+    @KafkaListener(
+        topics = TOPIC_INVOICE_CACHE_INVALIDATE,
+        groupId = "${app.groupId}-cache-#{T(java.util.UUID).randomUUID()}",
+        properties = "auto.offset.reset=latest"
+    )
+    public void consumeCacheInvalidation(ConsumerRecord<String, InvoiceChangedEvent> record) {
+        final var event = record.value();
+        logger().debug("Cache-Invalidierung empfangen: {}", event);
+        invoiceCacheService.evict(event);
+    }
+
+    /**
+     * Empfängt Statuswechsel mehrerer Rechnungen, die an Hibernate vorbei geschrieben wurden.
+     */
+    @Observed(name = "kafka-consume.invoice.status-changed")
+    @KafkaListener(
+        topics = TOPIC_INVOICE_STATUS_CHANGED,
+        groupId = "${app.groupId}-cache-#{T(java.util.UUID).randomUUID()}",
+        properties = "auto.offset.reset=latest"
+    )
+    public void consumeStatusChanged(ConsumerRecord<String, InvoiceStatusChangedEvent> record) {
+        final var event = record.value();
+        logger().debug("Statuswechsel empfangen: {} -> {} ({} Rechnungen)", event.from(), event.to(), event.invoices().size());
+        invoiceCacheService.evict(event);
+    }
+
+    /**
+     * Empfängt Blöcke neu angelegter Rechnungen anderer Replikate.
+     */
+    @Observed(name = "kafka-consume.invoice.invoices-created")
+    @KafkaListener(
+        topics = TOPIC_INVOICES_CREATED,
+        groupId = "${app.groupId}-cache-#{T(java.util.UUID).randomUUID()}",
+        properties = "auto.offset.reset=latest"
+    )
+    public void consumeInvoicesCreated(ConsumerRecord<String, InvoicesCreatedEvent> record) {
+        final var event = record.value();
+        logger().debug("Neue Rechnungen empfangen: {} Personen", event.persons().size());
+        invoiceCacheService.evict(event);
+    }
+
+    /**
+     * Empfängt abgehängte Monatspartitionen anderer Replikate.
+     */
+    @Observed(name = "kafka-consume.invoice.partition-detached")
+    @KafkaListener(
+        topics = TOPIC_INVOICE_PARTITION_DETACHED,
+        groupId = "${app.groupId}-cache-#{T(java.util.UUID).randomUUID()}",
+        properties = "auto.offset.reset=latest"
+    )
+    public void consumePartitionDetached(ConsumerRecord<String, InvoicePartitionDetachedEvent> record) {
+        final var event = record.value();
+        logger().debug("Partition abgehängt: {}", event.partition());
+        invoiceCacheService.evict(event);
+    }
+
     @Observed(name = "kafka-consume.invoice.orchestration")
     @KafkaListener(
         topics = {
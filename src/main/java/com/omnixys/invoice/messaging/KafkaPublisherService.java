@@ -2,6 +2,10 @@ package com.omnixys.invoice.messaging;
 
 import com.omnixys.invoice.config.AppProperties;
 import com.omnixys.invoice.models.entitys.Invoice;
+import com.omnixys.invoice.models.events.InvoiceChangedEvent;
+import com.omnixys.invoice.models.events.InvoicePartitionDetachedEvent;
+import com.omnixys.invoice.models.events.InvoiceStatusChangedEvent;
+import com.omnixys.invoice.models.events.InvoicesCreatedEvent;
 import com.omnixys.invoice.models.events.LogDTO;
 import com.omnixys.invoice.models.events.SendMail;
 import com.omnixys.invoice.tracing.TraceContextUtil;
@@ -22,6 +26,10 @@ import org.springframework.stereotype.Service;
 import java.time.Instant;
 import java.util.UUID;
 
+import static com.omnixys.invoice.messaging.KafkaTopicProperties.TOPIC_INVOICE_CACHE_INVALIDATE;
+import static com.omnixys.invoice.messaging.KafkaTopicProperties.TOPIC_INVOICE_PARTITION_DETACHED;
+import static com.omnixys.invoice.messaging.KafkaTopicProperties.TOPIC_INVOICE_STATUS_CHANGED;
+import static com.omnixys.invoice.messaging.KafkaTopicProperties.TOPIC_INVOICES_CREATED;
 import static com.omnixys.invoice.messaging.KafkaTopicProperties.TOPIC_LOG_STREAM_LOG_INVOICE;
 import static com.omnixys.invoice.messaging.KafkaTopicProperties.TOPIC_NOTIFICATION_ACCOUNT_CREATED;
 
@@ -95,6 +103,45 @@ public class KafkaPublisherService {
         sendKafkaEvent(TOPIC_NOTIFICATION_ACCOUNT_CREATED, mailDTO, "sendMail");
     }
 
+    /**
+     * Verteilt eine Rechnungsänderung an alle Replikate, damit diese ihre Caches invalidieren.
+     *
+     * @param event die Änderung inkl. Instanz-ID des Absenders
+     */
+    @Observed(name = "kafka-publisher.invoice-changed")
+    public void invoiceChanged(InvoiceChangedEvent event) {
+        sendKafkaEvent(TOPIC_INVOICE_CACHE_INVALIDATE, event, "invoiceChanged");
+    }
+
+    /**
+     * Versendet einen Statuswechsel mehrerer Rechnungen als ein Event.
+     *
+     * @param event die geänderten Rechnungen inkl. Instanz-ID des Absenders
+     */
+    @Observed(name = "kafka-publisher.invoice-status-changed")
+    public void invoiceStatusChanged(InvoiceStatusChangedEvent event) {
+        sendKafkaEvent(TOPIC_INVOICE_STATUS_CHANGED, event, "invoiceStatusChanged");
+    }
+
+    /**
+     * Versendet einen Block neu angelegter Rechnungen als ein Event.
+     *
+     * @param event die betroffenen Personen inkl. Instanz-ID des Absenders
+     */
+    @Observed(name = "kafka-publisher.invoices-created")
+    public void invoicesCreated(InvoicesCreatedEvent event) {
+        sendKafkaEvent(TOPIC_INVOICES_CREATED, event, "invoicesCreated");
+    }
+
+    /**
+     * Verteilt eine abgehängte Monatspartition an alle Replikate, damit diese ihre Caches vollständig verwerfen.
+     *
+     * @param event die abgehängte Partition inkl. Instanz-ID des Absenders
+     */
+    @Observed(name = "kafka-publisher.invoice-partition-detached")
+    public void invoicePartitionDetached(InvoicePartitionDetachedEvent event) {
+        sendKafkaEvent(TOPIC_INVOICE_PARTITION_DETACHED, event, "invoicePartitionDetached");
+    }
 
     /**
      * Zentraler Kafka-Versand mit OpenTelemetry-Span.
@@ -18,6 +18,15 @@ public final class KafkaTopicProperties {
     /** ✉️ Mailversand bei Kundenregistrierung */
     public static final String TOPIC_NOTIFICATION_ACCOUNT_CREATED = "notification.invoice.created";
 
+    /** Invalidierung des Rechnungs-Caches auf allen Replikaten */
+    public static final String TOPIC_INVOICE_CACHE_INVALIDATE = "invoice.cache.invalidate";
+    /** Statuswechsel mehrerer Rechnungen, z.B. PENDING → OVERDUE */
+    public static final String TOPIC_INVOICE_STATUS_CHANGED = "invoice.status.changed";
+    /** Block neu angelegter Rechnungen, z.B. aus createInvoices */
+    public static final String TOPIC_INVOICES_CREATED = "invoice.invoices.created";
+    /** Abgehängte Monatspartition, alle Caches werden verworfen */
+    public static final String TOPIC_INVOICE_PARTITION_DETACHED = "invoice.partition.detached";
+
     public static final String TOPIC_LOG_STREAM_LOG_INVOICE = "log-Stream.log.invoice";
 
     public static final String TOPIC_INVOICE_SHUTDOWN_ORCHESTRATOR = "invoice.shutdown.orchestrator";
@@ -1,9 +1,11 @@
 package com.omnixys.invoice.models.dto;
 
+import java.math.BigDecimal;
 import java.util.UUID;
 
 public record NewPaymentIdDTO(
     UUID paymentId,
-    UUID invoiceId
+    UUID invoiceId,
+    BigDecimal amount // optional, wird in invoice_payment mitgespeichert
 ) {
 }
@@ -0,0 +1,21 @@
+package com.omnixys.invoice.models.dto;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Eine Zahlung, wie sie vom Payment-Service über GraphQL geliefert wird.
+ * <p>
+ * Zahlungen sind nach ihrer Erstellung unveränderlich und können daher anhand ihrer ID gecacht werden.
+ * </p>
+ *
+ * @param id      Die ID der Zahlung
+ * @param amount  Der gezahlte Betrag
+ * @param created Erstellungszeitpunkt im Format des Payment-Service
+ */
+public record PaymentInfoDTO(
+    UUID id,
+    BigDecimal amount,
+    String created
+) {
+}
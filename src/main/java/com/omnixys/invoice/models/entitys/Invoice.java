@@ -1,17 +1,15 @@
 package com.omnixys.invoice.models.entitys;
 
 import com.omnixys.invoice.models.enums.StatusType;
-import jakarta.persistence.Column;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
-import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
-import jakarta.persistence.PostLoad;
-import jakarta.persistence.PrePersist;
-import jakarta.persistence.PreUpdate;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.OrderBy;
 import jakarta.persistence.Table;
-import jakarta.persistence.Transient;
 import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -20,20 +18,20 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
-
-import static java.util.Collections.emptyList;
 
 @Entity
 @Table(name = "invoice")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Invoice.CACHE_REGION)
 @NoArgsConstructor
 @AllArgsConstructor
 @Getter
@@ -42,8 +40,11 @@ import static java.util.Collections.emptyList;
 @ToString
 @EqualsAndHashCode(onlyExplicitlyIncluded = true, callSuper = false)
 public class Invoice {
+    /** Region des Second-Level-Cache, konfiguriert in {@code application.conf}. */
+    public static final String CACHE_REGION = "invoice";
+
     @Id
-    @GeneratedValue
+    @UuidV7Id
     @EqualsAndHashCode.Include
     private UUID id;
 
@@ -55,10 +56,14 @@ public class Invoice {
     private StatusType status;
     private LocalDateTime dueDate;
 
-    @Transient
-    private List<UUID> payments;
-    @Column(name = "payments")
-    private String paymentsStr;
+    /**
+     * Zahlungen der Rechnung aus {@code invoice_payment}; werden nur bei Bedarf geladen und nie über die Rechnung
+     * geschrieben, siehe {@link com.omnixys.invoice.repository.InvoicePaymentRepository#append}.
+     */
+    @OneToMany(mappedBy = "invoice", fetch = FetchType.LAZY)
+    @OrderBy("created, id.paymentId")
+    @ToString.Exclude
+    private List<InvoicePayment> payments;
 
     @CreationTimestamp
     private LocalDateTime created;
@@ -68,50 +73,4 @@ public class Invoice {
     private UUID issuedBy;
     private UUID billedTo;
     private UUID accountId; // ID des Zielkontos
-
-    /**
-     * Fügt eine neue Zahlungs-ID zur Rechnung hinzu und aktualisiert die persistente Darstellung.
-     *
-     * @param paymentId Die ID der neuen Zahlung
-     */
-    public void addPayment(UUID paymentId) {
-        if (this.payments == null || this.payments.isEmpty()) {
-            this.payments = new java.util.ArrayList<>();
-        }
-
-        if (!this.payments.contains(paymentId)) {
-            this.payments.add(paymentId);
-        }
-
-        buildPaymentsStr(); // wichtig: manuell aufrufen!
-    }
-
-
-    @PrePersist
-    @PreUpdate
-    private void buildPaymentsStr() {
-        if (payments == null || payments.isEmpty()) {
-            // NULL in der DB-Spalte
-            paymentsStr = null;
-            return;
-        }
-        final var stringList = payments.stream()
-            .map(UUID::toString)
-            .toList();
-        paymentsStr = String.join(",", stringList);
-    }
-
-    @PostLoad
-    @SuppressWarnings("java:S6204")
-    private void loadPayments() {
-        if (paymentsStr == null) {
-            // NULL in der DB-Spalte
-            payments = emptyList();
-            return;
-        }
-        final var paymentsArray = paymentsStr.split(",");
-        payments = Arrays.stream(paymentsArray)
-            .map(UUID::fromString)
-            .collect(Collectors.toList());
-    }
 }
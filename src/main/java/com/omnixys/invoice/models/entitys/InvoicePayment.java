@@ -0,0 +1,54 @@
+package com.omnixys.invoice.models.entitys;
+
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.MapsId;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Zuordnung einer Zahlung aus dem Payment-Service zu einer Rechnung.
+ * <p>
+ * Zeilen werden nur angehängt, siehe {@link com.omnixys.invoice.repository.InvoicePaymentRepository#append}.
+ * </p>
+ */
+@Entity
+@Table(name = "invoice_payment")
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@ToString
+@EqualsAndHashCode(onlyExplicitlyIncluded = true, callSuper = false)
+public class InvoicePayment {
+    @EmbeddedId
+    @EqualsAndHashCode.Include
+    private InvoicePaymentId id;
+
+    @MapsId("invoiceId")
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "invoice_id")
+    @ToString.Exclude
+    private Invoice invoice;
+
+    private BigDecimal amount; // kann bei migrierten Zahlungen fehlen
+    private LocalDateTime created;
+
+    public UUID getInvoiceId() {
+        return id.getInvoiceId();
+    }
+
+    public UUID getPaymentId() {
+        return id.getPaymentId();
+    }
+}
@@ -0,0 +1,25 @@
+package com.omnixys.invoice.models.entitys;
+
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * Zusammengesetzter Primärschlüssel von {@link InvoicePayment}.
+ */
+@Embeddable
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@ToString
+@EqualsAndHashCode
+public class InvoicePaymentId implements Serializable {
+    private UUID invoiceId;
+    private UUID paymentId;
+}
@@ -0,0 +1,34 @@
+package com.omnixys.invoice.models.entitys;
+
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+
+/**
+ * Inkrementell gepflegter Rollup mit Anzahl und Summe der Rechnungen pro Aussteller, Fälligkeitsmonat und Status.
+ * <p>
+ * Die Tabelle wird ausschließlich über {@link com.omnixys.invoice.service.InvoiceStatsService} geschrieben.
+ * </p>
+ */
+@Entity
+@Table(name = "invoice_revenue_rollup")
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@ToString
+@EqualsAndHashCode(onlyExplicitlyIncluded = true, callSuper = false)
+public class InvoiceRevenueRollup {
+    @EmbeddedId
+    @EqualsAndHashCode.Include
+    private InvoiceRevenueRollupId id;
+
+    private long invoiceCount;
+    private BigDecimal totalAmount;
+}
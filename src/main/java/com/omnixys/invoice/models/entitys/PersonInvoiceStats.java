@@ -0,0 +1,34 @@
+package com.omnixys.invoice.models.entitys;
+
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+
+/**
+ * Inkrementell gepflegtes Read-Model mit Anzahl und Summe der Rechnungen pro Person, Rolle und Status.
+ * <p>
+ * Die Tabelle wird ausschließlich über {@link com.omnixys.invoice.service.InvoiceStatsService} geschrieben.
+ * </p>
+ */
+@Entity
+@Table(name = "person_invoice_stats")
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@ToString
+@EqualsAndHashCode(onlyExplicitlyIncluded = true, callSuper = false)
+public class PersonInvoiceStats {
+    @EmbeddedId
+    @EqualsAndHashCode.Include
+    private PersonInvoiceStatsId id;
+
+    private long invoiceCount;
+    private BigDecimal totalAmount;
+}
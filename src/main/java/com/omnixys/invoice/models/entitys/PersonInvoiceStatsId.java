@@ -0,0 +1,32 @@
+package com.omnixys.invoice.models.entitys;
+
+import com.omnixys.invoice.models.enums.InvoiceRole;
+import com.omnixys.invoice.models.enums.StatusType;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * Zusammengesetzter Primärschlüssel von {@link PersonInvoiceStats}.
+ */
+@Embeddable
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@ToString
+@EqualsAndHashCode
+public class PersonInvoiceStatsId implements Serializable {
+    private UUID personId;
+    @Enumerated(EnumType.STRING)
+    private InvoiceRole role;
+    @Enumerated(EnumType.STRING)
+    private StatusType status;
+}
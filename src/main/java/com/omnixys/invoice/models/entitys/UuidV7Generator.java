@@ -0,0 +1,30 @@
+package com.omnixys.invoice.models.entitys;
+
+import com.omnixys.invoice.util.UuidV7;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+
+import java.util.EnumSet;
+
+import static org.hibernate.generator.EventTypeSets.INSERT_ONLY;
+
+/**
+ * Hibernate-Generator für IDs mit {@link UuidV7}; wird über {@link UuidV7Id} an ein ID-Attribut gebunden.
+ */
+public class UuidV7Generator implements BeforeExecutionGenerator {
+    @Override
+    public Object generate(
+        final SharedSessionContractImplementor session,
+        final Object owner,
+        final Object currentValue,
+        final EventType eventType
+    ) {
+        return UuidV7.next();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return INSERT_ONLY;
+    }
+}
@@ -0,0 +1,20 @@
+package com.omnixys.invoice.models.entitys;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Vergibt die ID einer Entity beim {@code persist} als zeitlich geordnete UUID der Version 7, siehe {@link UuidV7Generator}.
+ * Ersetzt {@code @GeneratedValue} an UUID-Primärschlüsseln.
+ */
+@IdGeneratorType(UuidV7Generator.class)
+@Retention(RUNTIME)
+@Target({FIELD, METHOD})
+public @interface UuidV7Id {
+}
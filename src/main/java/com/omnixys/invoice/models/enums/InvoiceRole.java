@@ -0,0 +1,14 @@
+package com.omnixys.invoice.models.enums;
+
+/**
+ * Rolle einer Person bezogen auf eine Rechnung.
+ * <p>
+ * {@link #SELF_BILLED} ist eine rein interne Rolle der Statistik-Tabelle für Rechnungen, bei denen Aussteller und
+ * Empfänger identisch sind.
+ * </p>
+ */
+public enum InvoiceRole {
+    ISSUER,
+    RECIPIENT,
+    SELF_BILLED
+}
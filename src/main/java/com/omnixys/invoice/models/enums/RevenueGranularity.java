@@ -0,0 +1,29 @@
+package com.omnixys.invoice.models.enums;
+
+import java.util.Locale;
+
+/**
+ * Zeitraster für Umsatzauswertungen.
+ */
+public enum RevenueGranularity {
+    DAY,
+    WEEK,
+    MONTH,
+    QUARTER,
+    YEAR;
+
+    /**
+     * @return Die Einheit für {@code date_trunc}, z.B. {@code month}
+     */
+    public String unit() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @return {@code true}, wenn jeder Zeitraum aus ganzen Monaten besteht und damit aus dem Monats-Rollup
+     * berechnet werden kann
+     */
+    public boolean isMonthAligned() {
+        return this == MONTH || this == QUARTER || this == YEAR;
+    }
+}
@@ -0,0 +1,32 @@
+package com.omnixys.invoice.models.events;
+
+import com.omnixys.invoice.models.entitys.Invoice;
+
+import java.util.UUID;
+
+/**
+ * Eine Rechnung wurde angelegt oder geändert.
+ * <p>
+ * Wird lokal als Application-Event veröffentlicht und nach dem Commit über Kafka an alle Replikate verteilt, damit
+ * diese ihre Caches invalidieren. {@code origin} kennzeichnet die Instanz, die die Änderung durchgeführt hat.
+ * </p>
+ *
+ * @param invoiceId Die ID der Rechnung
+ * @param issuedBy  Der Aussteller
+ * @param billedTo  Der Empfänger
+ * @param origin    Die Instanz-ID des Absenders; {@code null}, solange das Event nur lokal ist
+ */
+public record InvoiceChangedEvent(
+    UUID invoiceId,
+    UUID issuedBy,
+    UUID billedTo,
+    String origin
+) {
+    public static InvoiceChangedEvent of(final Invoice invoice) {
+        return new InvoiceChangedEvent(invoice.getId(), invoice.getIssuedBy(), invoice.getBilledTo(), null);
+    }
+
+    public InvoiceChangedEvent withOrigin(final String origin) {
+        return new InvoiceChangedEvent(invoiceId, issuedBy, billedTo, origin);
+    }
+}
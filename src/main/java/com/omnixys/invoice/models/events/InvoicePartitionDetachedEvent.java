@@ -0,0 +1,21 @@
+package com.omnixys.invoice.models.events;
+
+/**
+ * Eine Monatspartition der Tabelle {@code invoice} wurde zur Archivierung abgehängt.
+ * <p>
+ * Die Rechnungen der Partition sind damit nicht mehr lesbar und aus {@code person_invoice_stats} herausgerechnet.
+ * Da die betroffenen Rechnungen und Personen nicht einzeln bekannt sind, verwerfen lokale und entfernte Caches
+ * daraufhin alle Rechnungen und Aggregate.
+ * </p>
+ *
+ * @param partition Der Name der abgehängten Partition
+ * @param origin    Die Instanz-ID des Absenders; {@code null}, solange das Event nur lokal ist
+ */
+public record InvoicePartitionDetachedEvent(
+    String partition,
+    String origin
+) {
+    public InvoicePartitionDetachedEvent withOrigin(final String origin) {
+        return new InvoicePartitionDetachedEvent(partition, origin);
+    }
+}
@@ -0,0 +1,28 @@
+package com.omnixys.invoice.models.events;
+
+import com.omnixys.invoice.models.enums.StatusType;
+
+import java.util.List;
+
+/**
+ * Der Status mehrerer Rechnungen wurde in einem Schritt geändert, z.B. durch den Überfälligkeits-Sweeper.
+ * <p>
+ * Die Änderung erfolgt per SQL an Hibernate vorbei; das Event sorgt dafür, dass lokale und entfernte Caches die
+ * betroffenen Rechnungen und Personen verwerfen.
+ * </p>
+ *
+ * @param from     Der bisherige Status
+ * @param to       Der neue Status
+ * @param invoices Die geänderten Rechnungen mit Aussteller und Empfänger
+ * @param origin   Die Instanz-ID des Absenders; {@code null}, solange das Event nur lokal ist
+ */
+public record InvoiceStatusChangedEvent(
+    StatusType from,
+    StatusType to,
+    List<InvoiceChangedEvent> invoices,
+    String origin
+) {
+    public InvoiceStatusChangedEvent withOrigin(final String origin) {
+        return new InvoiceStatusChangedEvent(from, to, invoices, origin);
+    }
+}
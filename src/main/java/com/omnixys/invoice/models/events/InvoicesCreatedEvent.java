@@ -0,0 +1,37 @@
+package com.omnixys.invoice.models.events;
+
+import com.omnixys.invoice.models.entitys.Invoice;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Mehrere Rechnungen wurden in einer Transaktion angelegt, z.B. ein Block von {@code createInvoices}.
+ * <p>
+ * Neue Rechnungen können noch in keinem Second-Level-Cache liegen; das Event sorgt nur dafür, dass lokale und
+ * entfernte Caches die Aggregate der betroffenen Aussteller und Empfänger verwerfen.
+ * </p>
+ *
+ * @param persons Die Aussteller und Empfänger der neuen Rechnungen, ohne Duplikate
+ * @param origin  Die Instanz-ID des Absenders; {@code null}, solange das Event nur lokal ist
+ */
+public record InvoicesCreatedEvent(
+    List<UUID> persons,
+    String origin
+) {
+    public static InvoicesCreatedEvent of(final Collection<Invoice> invoices) {
+        final var persons = invoices.stream()
+            .flatMap(invoice -> Stream.of(invoice.getIssuedBy(), invoice.getBilledTo()))
+            .filter(Objects::nonNull)
+            .distinct()
+            .toList();
+        return new InvoicesCreatedEvent(persons, null);
+    }
+
+    public InvoicesCreatedEvent withOrigin(final String origin) {
+        return new InvoicesCreatedEvent(persons, origin);
+    }
+}
@@ -20,7 +20,22 @@ public record SearchCriteria(
     BigDecimal maxAmount
 ) {
     /**
-     * Konvertiert die Kriterien in eine Map für die Filterung.
+     * Keine Suchkriterien gesetzt.
+     */
+    public static final SearchCriteria NONE = new SearchCriteria(null, null, null, null, null, null, null, null);
+
+    /**
+     * Prüft, ob kein Filterkriterium gesetzt ist. {@code infoType} filtert nicht und zählt daher nicht.
+     *
+     * @return {@code true}, falls kein Filterkriterium gesetzt ist.
+     */
+    public boolean isEmpty() {
+        return status == null && issuedBy == null && billedTo == null
+            && dueBefore == null && dueAfter == null && minAmount == null && maxAmount == null;
+    }
+
+    /**
+     * Konvertiert die Kriterien in eine Map, z.B. für Fehlermeldungen.
      *
      * @return Eine Map mit den gesetzten Suchkriterien.
      */
@@ -0,0 +1,25 @@
+package com.omnixys.invoice.models.payload;
+
+import java.util.UUID;
+
+/**
+ * Altersstruktur der offenen Forderungen eines Ausstellers nach Tagen seit Fälligkeit.
+ *
+ * @param issuerId    Der Aussteller
+ * @param current     Noch nicht fällig
+ * @param days1To30   1 bis 30 Tage überfällig
+ * @param days31To60  31 bis 60 Tage überfällig
+ * @param days61To90  61 bis 90 Tage überfällig
+ * @param over90Days  Mehr als 90 Tage überfällig
+ * @param total       Alle offenen Rechnungen
+ */
+public record AgingReport(
+    UUID issuerId,
+    InfoPayload current,
+    InfoPayload days1To30,
+    InfoPayload days31To60,
+    InfoPayload days61To90,
+    InfoPayload over90Days,
+    InfoPayload total
+) {
+}
@@ -0,0 +1,24 @@
+package com.omnixys.invoice.models.payload;
+
+import java.util.UUID;
+
+/**
+ * Ergebnis eines Eintrags in {@code createInvoices}.
+ *
+ * @param index Position des Eintrags in der Eingabe
+ * @param id    Die ID der angelegten Rechnung oder {@code null}, wenn der Eintrag fehlgeschlagen ist
+ * @param error Fehlerbeschreibung oder {@code null}, wenn die Rechnung angelegt wurde
+ */
+public record CreateInvoiceResult(
+    int index,
+    UUID id,
+    String error
+) {
+    public static CreateInvoiceResult created(final int index, final UUID id) {
+        return new CreateInvoiceResult(index, id, null);
+    }
+
+    public static CreateInvoiceResult failed(final int index, final String error) {
+        return new CreateInvoiceResult(index, null, error);
+    }
+}
@@ -0,0 +1,17 @@
+package com.omnixys.invoice.models.payload;
+
+import java.util.UUID;
+
+/**
+ * Summen und Zähler eines angefragten Kunden in {@code invoiceInfoByCustomers}.
+ *
+ * @param customerId Der angefragte Kunde
+ * @param found      {@code false}, wenn zu dem Kunden keine Rechnungen erfasst sind
+ * @param info       Anzahl und Summe; {@link InfoPayload#EMPTY}, wenn nichts gefunden wurde
+ */
+public record CustomerInfoResult(
+    UUID customerId,
+    boolean found,
+    InfoPayload info
+) {
+}
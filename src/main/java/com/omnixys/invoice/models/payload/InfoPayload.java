@@ -6,4 +6,31 @@ public record InfoPayload(
     int count,
     BigDecimal totalAmount
 ) {
+    /**
+     * Leeres Ergebnis ohne Datensätze.
+     */
+    public static final InfoPayload EMPTY = new InfoPayload(0, BigDecimal.ZERO);
+
+    /**
+     * Konstruktor für Aggregate aus {@code person_invoice_stats} und nativen Abfragen, deren Anzahl als {@code bigint}
+     * bzw. {@code long} vorliegt.
+     *
+     * @param count       Anzahl der Datensätze
+     * @param totalAmount Summe der Beträge
+     * @throws ArithmeticException Wenn die Anzahl nicht in das {@code Int} des GraphQL-Schemas passt
+     */
+    public InfoPayload(final long count, final BigDecimal totalAmount) {
+        this(Math.toIntExact(count), totalAmount == null ? BigDecimal.ZERO : totalAmount);
+    }
+
+    /**
+     * Addiert Anzahl und Summe.
+     *
+     * @param other Der zweite Summand
+     * @return Die Summe beider Ergebnisse
+     * @throws ArithmeticException Wenn die Anzahl nicht in das {@code Int} des GraphQL-Schemas passt
+     */
+    public InfoPayload plus(final InfoPayload other) {
+        return new InfoPayload((long) count + other.count, totalAmount.add(other.totalAmount));
+    }
 }
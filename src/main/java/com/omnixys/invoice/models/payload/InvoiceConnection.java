@@ -0,0 +1,15 @@
+package com.omnixys.invoice.models.payload;
+
+import java.util.List;
+
+/**
+ * Relay-Connection für seitenweise abgefragte Rechnungen.
+ *
+ * @param edges    Die Einträge der aktuellen Seite
+ * @param pageInfo Informationen zum Weiterblättern
+ */
+public record InvoiceConnection(
+    List<InvoiceEdge> edges,
+    PageInfo pageInfo
+) {
+}
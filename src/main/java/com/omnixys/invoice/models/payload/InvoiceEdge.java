@@ -0,0 +1,15 @@
+package com.omnixys.invoice.models.payload;
+
+import com.omnixys.invoice.models.entitys.Invoice;
+
+/**
+ * Ein Eintrag einer {@link InvoiceConnection} mit opakem Cursor.
+ *
+ * @param cursor Opaker Cursor, der hinter diesen Eintrag zeigt
+ * @param node   Die Rechnung
+ */
+public record InvoiceEdge(
+    String cursor,
+    Invoice node
+) {
+}
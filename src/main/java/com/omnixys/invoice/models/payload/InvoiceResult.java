@@ -0,0 +1,23 @@
+package com.omnixys.invoice.models.payload;
+
+import com.omnixys.invoice.models.entitys.Invoice;
+
+import java.util.UUID;
+
+/**
+ * Ergebnis einer angefragten ID in {@code invoicesByIds}.
+ *
+ * @param id      Die angefragte ID
+ * @param invoice Die Rechnung oder {@code null}, wenn keine Rechnung mit dieser ID existiert
+ */
+public record InvoiceResult(
+    UUID id,
+    Invoice invoice
+) {
+    /**
+     * @return {@code true}, wenn die Rechnung gefunden wurde
+     */
+    public boolean found() {
+        return invoice != null;
+    }
+}
@@ -0,0 +1,17 @@
+package com.omnixys.invoice.models.payload;
+
+/**
+ * Relay-konforme Seiteninformationen einer Connection.
+ *
+ * @param hasNextPage     Ob nach dieser Seite weitere Einträge existieren
+ * @param hasPreviousPage Ob vor dieser Seite Einträge existieren (d.h. es wurde ein Cursor übergeben)
+ * @param startCursor     Cursor des ersten Eintrags oder {@code null} bei leerer Seite
+ * @param endCursor       Cursor des letzten Eintrags oder {@code null} bei leerer Seite
+ */
+public record PageInfo(
+    boolean hasNextPage,
+    boolean hasPreviousPage,
+    String startCursor,
+    String endCursor
+) {
+}
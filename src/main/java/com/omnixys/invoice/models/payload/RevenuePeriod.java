@@ -0,0 +1,17 @@
+package com.omnixys.invoice.models.payload;
+
+/**
+ * Umsatz eines Ausstellers in einem Zeitraum, bezogen auf den Fälligkeitstermin der Rechnungen.
+ *
+ * @param period   Beginn des Zeitraums im Format {@code yyyy-MM-dd}
+ * @param invoiced Alle Rechnungen unabhängig vom Status
+ * @param paid     Bezahlte Rechnungen
+ * @param overdue  Überfällige Rechnungen
+ */
+public record RevenuePeriod(
+    String period,
+    InfoPayload invoiced,
+    InfoPayload paid,
+    InfoPayload overdue
+) {
+}
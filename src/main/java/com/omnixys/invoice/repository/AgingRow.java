@@ -0,0 +1,17 @@
+package com.omnixys.invoice.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Projektion einer Zeile der Altersstruktur: Anzahl und Summe offener Rechnungen pro Überfälligkeitsbereich.
+ */
+public interface AgingRow {
+    /**
+     * @return {@code current}, {@code 1-30}, {@code 31-60}, {@code 61-90} oder {@code 90+}
+     */
+    String getBucket();
+
+    long getInvoiceCount();
+
+    BigDecimal getTotalAmount();
+}
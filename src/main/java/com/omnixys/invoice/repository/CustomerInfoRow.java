@@ -0,0 +1,15 @@
+package com.omnixys.invoice.repository;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Projektion der Summen einer Person als Aussteller ODER Empfänger.
+ */
+public interface CustomerInfoRow {
+    UUID getPersonId();
+
+    long getInvoiceCount();
+
+    BigDecimal getTotalAmount();
+}
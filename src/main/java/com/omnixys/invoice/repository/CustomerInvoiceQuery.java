@@ -0,0 +1,159 @@
+package com.omnixys.invoice.repository;
+
+import com.omnixys.invoice.models.entitys.Invoice;
+import com.omnixys.invoice.models.enums.StatusType;
+import com.omnixys.invoice.models.inputs.SearchCriteria;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static com.omnixys.invoice.repository.SpecificationBuilder.KEYSET_SORT;
+
+/**
+ * Abfragen über alle Rechnungen eines Kunden, also als Aussteller ODER Empfänger.
+ * <p>
+ * Statt {@code issued_by = :id OR billed_to = :id} werden beide Seiten getrennt über ihre Indizes gelesen und
+ * zusammengeführt. Rechnungen an sich selbst liefert nur die Aussteller-Seite, daher entstehen keine Duplikate.
+ * Zusätzliche Suchkriterien werden auf beide Seiten angewendet.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CustomerInvoiceQuery {
+  /**
+   * Reihenfolge von {@link SpecificationBuilder#KEYSET_SORT}: {@code created DESC, id DESC}.
+   */
+  private static final Comparator<Invoice> KEYSET_ORDER = Comparator
+      .comparing(Invoice::getCreated)
+      .thenComparing(Invoice::getId)
+      .reversed();
+
+  private final InvoiceRepository invoiceRepository;
+  private final SpecificationBuilder specificationBuilder;
+
+  /**
+   * Findet alle Rechnungen eines Kunden, die den Suchkriterien entsprechen.
+   *
+   * @param customerId Die ID des Kunden
+   * @param criteria   Zusätzliche Suchkriterien
+   * @return Die Rechnungen, zuerst die ausgestellten, dann die empfangenen
+   */
+  public List<Invoice> findAll(final UUID customerId, final SearchCriteria criteria) {
+    log.debug("findAll: customerId={} criteria={}", customerId, criteria);
+    if (criteria == null || criteria.isEmpty()) {
+      return invoiceRepository.findByCustomer(customerId);
+    }
+    if (isStatusOnly(criteria)) {
+      return invoiceRepository.findByCustomerAndStatus(customerId, SpecificationBuilder.status(criteria.status()).name());
+    }
+
+    final var specification = specificationBuilder.build(criteria).orElseThrow();
+    final var issued = invoiceRepository.findAll(specificationBuilder.issuedBy(customerId).and(specification));
+    final var received = invoiceRepository.findAll(specificationBuilder.billedToByOthers(customerId).and(specification));
+    return concat(issued, received);
+  }
+
+  /**
+   * Findet alle Rechnungen eines Kunden und liest dabei nur die angegebenen Felder.
+   *
+   * @param customerId Die ID des Kunden
+   * @param criteria   Zusätzliche Suchkriterien
+   * @param fields     Die benötigten Felder, siehe {@link InvoiceProjectionRepository}
+   * @return Die teilweise befüllten Rechnungen, zuerst die ausgestellten, dann die empfangenen
+   */
+  public List<Invoice> findAll(final UUID customerId, final SearchCriteria criteria, final Collection<String> fields) {
+    log.debug("findAll: customerId={} criteria={} fields={}", customerId, criteria, fields);
+    final var specification = specificationBuilder.build(criteria);
+    final var issuedBy = specificationBuilder.issuedBy(customerId);
+    final var billedTo = specificationBuilder.billedToByOthers(customerId);
+    final var issued = invoiceRepository.findAll(specification.map(issuedBy::and).orElse(issuedBy), fields);
+    final var received = invoiceRepository.findAll(specification.map(billedTo::and).orElse(billedTo), fields);
+    return concat(issued, received);
+  }
+
+  /**
+   * Findet alle Rechnungen eines Kunden mit optionalem Status.
+   *
+   * @param customerId Die ID des Kunden
+   * @param status     Der Status oder {@code null} für alle
+   * @return Die Rechnungen, zuerst die ausgestellten, dann die empfangenen
+   */
+  public List<Invoice> findAll(final UUID customerId, final StatusType status) {
+    log.debug("findAll: customerId={} status={}", customerId, status);
+    return status == null
+        ? invoiceRepository.findByCustomer(customerId)
+        : invoiceRepository.findByCustomerAndStatus(customerId, status.name());
+  }
+
+  /**
+   * Liest höchstens {@code limit} Rechnungen eines Kunden hinter der Keyset-Position in der Reihenfolge
+   * {@link SpecificationBuilder#KEYSET_SORT}.
+   * <p>
+   * Jede Seite wird mit {@code limit} Zeilen über ihren Index gelesen, anschließend werden beide sortierten
+   * Teillisten gemischt.
+   * </p>
+   *
+   * @param customerId Die ID des Kunden
+   * @param criteria   Zusätzliche Suchkriterien
+   * @param cursor     Die Keyset-Position oder {@code null} für den Anfang
+   * @param limit      Maximale Anzahl an Zeilen
+   * @return Die Rechnungen in Keyset-Reihenfolge
+   */
+  public List<Invoice> findSlice(
+      final UUID customerId,
+      final SearchCriteria criteria,
+      final InvoiceCursor cursor,
+      final int limit
+  ) {
+    log.debug("findSlice: customerId={} cursor={} limit={}", customerId, cursor, limit);
+    Specification<Invoice> filter = specificationBuilder.build(criteria).orElse(Specification.where(null));
+    if (cursor != null) {
+      filter = filter.and(specificationBuilder.seek(cursor));
+    }
+
+    final var issued = slice(specificationBuilder.issuedBy(customerId).and(filter), limit);
+    final var received = slice(specificationBuilder.billedToByOthers(customerId).and(filter), limit);
+    return merge(issued, received, limit);
+  }
+
+  private List<Invoice> slice(final Specification<Invoice> specification, final int limit) {
+    return invoiceRepository.findBy(specification, query -> query.sortBy(KEYSET_SORT).limit(limit).all());
+  }
+
+  private static boolean isStatusOnly(final SearchCriteria criteria) {
+    return criteria.status() != null
+        && criteria.equals(new SearchCriteria(criteria.infoType(), criteria.status(), null, null, null, null, null, null));
+  }
+
+  private static List<Invoice> concat(final List<Invoice> first, final List<Invoice> second) {
+    final List<Invoice> result = new ArrayList<>(first.size() + second.size());
+    result.addAll(first);
+    result.addAll(second);
+    return result;
+  }
+
+  /**
+   * Mischt zwei in Keyset-Reihenfolge sortierte Listen und begrenzt das Ergebnis auf {@code limit} Einträge.
+   */
+  private static List<Invoice> merge(final List<Invoice> left, final List<Invoice> right, final int limit) {
+    final List<Invoice> result = new ArrayList<>(Math.min(limit, left.size() + right.size()));
+    int i = 0;
+    int j = 0;
+    while (result.size() < limit && (i < left.size() || j < right.size())) {
+      if (j >= right.size() || (i < left.size() && KEYSET_ORDER.compare(left.get(i), right.get(j)) <= 0)) {
+        result.add(left.get(i++));
+      } else {
+        result.add(right.get(j++));
+      }
+    }
+    return result;
+  }
+}
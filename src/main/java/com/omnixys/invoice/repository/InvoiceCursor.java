@@ -0,0 +1,73 @@
+package com.omnixys.invoice.repository;
+
+import com.omnixys.invoice.models.entitys.Invoice;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Keyset-Position einer Rechnung für die Cursor-Pagination.
+ * <p>
+ * Die Sortierung erfolgt absteigend über {@code (created, id)}; die ID dient als eindeutiger Tie-Breaker.
+ * Nach außen wird die Position als opaker Base64-String ausgegeben.
+ * </p>
+ *
+ * @param created Erstellungszeitpunkt der Rechnung
+ * @param id      ID der Rechnung
+ */
+public record InvoiceCursor(
+    LocalDateTime created,
+    UUID id
+) {
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Erstellt den Cursor, der hinter die gegebene Rechnung zeigt.
+     *
+     * @param invoice Die Rechnung
+     * @return Der Cursor
+     */
+    public static InvoiceCursor of(final Invoice invoice) {
+        return new InvoiceCursor(invoice.getCreated(), invoice.getId());
+    }
+
+    /**
+     * Dekodiert einen opaken Cursor.
+     *
+     * @param cursor Der Cursor oder {@code null}
+     * @return Die Position oder {@code Optional.empty()}, falls kein Cursor übergeben wurde
+     * @throws IllegalArgumentException Falls der Cursor nicht dekodiert werden kann
+     */
+    public static Optional<InvoiceCursor> decode(final String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return Optional.empty();
+        }
+        try {
+            final var decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            final var separator = decoded.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException("Ungültiger Cursor: " + cursor);
+            }
+            return Optional.of(new InvoiceCursor(
+                LocalDateTime.parse(decoded.substring(0, separator)),
+                UUID.fromString(decoded.substring(separator + 1))
+            ));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Ungültiger Cursor: " + cursor, e);
+        }
+    }
+
+    /**
+     * Kodiert die Position als opaken Cursor.
+     *
+     * @return Der Base64-kodierte Cursor
+     */
+    public String encode() {
+        final var raw = created + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
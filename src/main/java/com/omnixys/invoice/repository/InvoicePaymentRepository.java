@@ -0,0 +1,44 @@
+package com.omnixys.invoice.repository;
+
+import com.omnixys.invoice.models.entitys.InvoicePayment;
+import com.omnixys.invoice.models.entitys.InvoicePaymentId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface InvoicePaymentRepository extends JpaRepository<InvoicePayment, InvoicePaymentId> {
+
+    @Query("SELECT p.id.paymentId FROM InvoicePayment p WHERE p.id.invoiceId = :invoiceId ORDER BY p.created, p.id.paymentId")
+    List<UUID> findPaymentIdsByInvoiceId(UUID invoiceId);
+
+    @Query("SELECT p.id.paymentId FROM InvoicePayment p WHERE p.id.invoiceId IN :invoiceIds")
+    List<UUID> findPaymentIdsByInvoiceIdIn(Collection<UUID> invoiceIds);
+
+    @Query("SELECT p FROM InvoicePayment p WHERE p.id.invoiceId IN :invoiceIds ORDER BY p.created, p.id.paymentId")
+    List<InvoicePayment> findByInvoiceIdIn(Collection<UUID> invoiceIds);
+
+    @Query("SELECT p.id.invoiceId FROM InvoicePayment p WHERE p.id.paymentId = :paymentId")
+    Optional<UUID> findInvoiceIdByPaymentId(UUID paymentId);
+
+    /**
+     * Hängt eine Zahlung an eine Rechnung an, ohne die Rechnungszeile zu verändern.
+     * Bereits bekannte Zahlungen (z.B. bei erneut zugestellten Events) werden ignoriert.
+     *
+     * @return 1, falls die Zahlung neu angelegt wurde, sonst 0
+     */
+    @Modifying
+    @Query(value = """
+INSERT INTO invoice_payment (invoice_id, payment_id, amount, created)
+VALUES (:invoiceId, :paymentId, :amount, now())
+ON CONFLICT DO NOTHING
+""", nativeQuery = true)
+    int append(UUID invoiceId, UUID paymentId, BigDecimal amount);
+}
@@ -0,0 +1,26 @@
+package com.omnixys.invoice.repository;
+
+import com.omnixys.invoice.models.entitys.Invoice;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository-Fragment für Abfragen, die nur die angefragten Spalten einer Rechnung lesen.
+ */
+public interface InvoiceProjectionRepository {
+
+    /**
+     * Liest nur die angegebenen Felder der passenden Rechnungen.
+     * <p>
+     * Die Ergebnisse sind keine verwalteten Entities: nicht angefragte Felder bleiben leer, die ID ist immer gesetzt.
+     * Unbekannte Feldnamen (z.B. berechnete GraphQL-Felder) werden ignoriert.
+     * </p>
+     *
+     * @param specification Filter oder {@code null} für alle Rechnungen
+     * @param fields        Die Namen der benötigten Felder
+     * @return Die teilweise befüllten Rechnungen
+     */
+    List<Invoice> findAll(Specification<Invoice> specification, Collection<String> fields);
+}
@@ -0,0 +1,85 @@
+package com.omnixys.invoice.repository;
+
+import com.omnixys.invoice.models.entitys.Invoice;
+import com.omnixys.invoice.models.entitys.Invoice_;
+import com.omnixys.invoice.models.enums.StatusType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.Selection;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Tuple-Abfrage über die Criteria-API, die nur die angefragten Spalten selektiert.
+ */
+@Slf4j
+public class InvoiceProjectionRepositoryImpl implements InvoiceProjectionRepository {
+    /**
+     * Felder, die direkt einer Spalte der Tabelle {@code invoice} entsprechen.
+     */
+    private static final Set<String> COLUMNS = Set.of(
+        Invoice_.ID, Invoice_.VERSION, Invoice_.AMOUNT, Invoice_.STATUS, Invoice_.DUE_DATE,
+        Invoice_.CREATED, Invoice_.UPDATED, Invoice_.ACCOUNT_ID, Invoice_.ISSUED_BY, Invoice_.BILLED_TO
+    );
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Invoice> findAll(final Specification<Invoice> specification, final Collection<String> fields) {
+        final var columns = new LinkedHashSet<String>();
+        columns.add(Invoice_.ID);
+        fields.stream()
+            .filter(COLUMNS::contains)
+            .forEach(columns::add);
+        log.trace("findAll: columns={}", columns);
+
+        final var cb = entityManager.getCriteriaBuilder();
+        final var query = cb.createTupleQuery();
+        final var root = query.from(Invoice.class);
+        final List<Selection<?>> selections = columns.stream()
+            .<Selection<?>>map(column -> root.get(column).alias(column))
+            .toList();
+        query.multiselect(selections);
+        if (specification != null) {
+            final var predicate = specification.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+
+        return entityManager.createQuery(query)
+            .getResultStream()
+            .map(tuple -> toInvoice(tuple, columns))
+            .toList();
+    }
+
+    private static Invoice toInvoice(final Tuple tuple, final Set<String> columns) {
+        final var invoice = new Invoice();
+        columns.forEach(column -> {
+            switch (column) {
+                case Invoice_.ID -> invoice.setId(tuple.get(column, UUID.class));
+                case Invoice_.VERSION -> invoice.setVersion(tuple.get(column, Integer.class));
+                case Invoice_.AMOUNT -> invoice.setAmount(tuple.get(column, BigDecimal.class));
+                case Invoice_.STATUS -> invoice.setStatus(tuple.get(column, StatusType.class));
+                case Invoice_.DUE_DATE -> invoice.setDueDate(tuple.get(column, LocalDateTime.class));
+                case Invoice_.CREATED -> invoice.setCreated(tuple.get(column, LocalDateTime.class));
+                case Invoice_.UPDATED -> invoice.setUpdated(tuple.get(column, LocalDateTime.class));
+                case Invoice_.ACCOUNT_ID -> invoice.setAccountId(tuple.get(column, UUID.class));
+                case Invoice_.ISSUED_BY -> invoice.setIssuedBy(tuple.get(column, UUID.class));
+                case Invoice_.BILLED_TO -> invoice.setBilledTo(tuple.get(column, UUID.class));
+                default -> throw new IllegalStateException("Unbekannte Spalte: " + column);
+            }
+        });
+        return invoice;
+    }
+}
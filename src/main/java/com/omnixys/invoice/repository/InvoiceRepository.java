@@ -9,12 +9,15 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface InvoiceRepository extends JpaRepository<Invoice, UUID>, JpaSpecificationExecutor<Invoice> {
+public interface InvoiceRepository extends JpaRepository<Invoice, UUID>, JpaSpecificationExecutor<Invoice>,
+    InvoiceProjectionRepository {
     @NonNull
     @Override
     List<Invoice> findAll();
@@ -27,17 +30,85 @@ public interface InvoiceRepository extends JpaRepository<Invoice, UUID>, JpaSpec
     @Override
     Optional<Invoice> findById(@NonNull UUID id);
 
-    @Query("""
-SELECT i FROM Invoice i
-WHERE (i.issuedBy = :id OR i.billedTo = :id)
-AND (:status IS NULL OR i.status = :status)
-""")
-    List<Invoice> findByIssuedByOrBilledToAndOptionalStatus(UUID id, UUID id2, StatusType status);
+    /**
+     * Alle Rechnungen einer Person als Aussteller ODER Empfänger als UNION ALL zweier Index-Scans.
+     * Rechnungen an sich selbst liefert nur die Aussteller-Seite.
+     */
+    @Query(value = """
+SELECT * FROM invoice WHERE issued_by = :personId
+UNION ALL
+SELECT * FROM invoice WHERE billed_to = :personId AND issued_by IS DISTINCT FROM :personId
+""", nativeQuery = true)
+    List<Invoice> findByCustomer(UUID personId);
 
-    List<Invoice> findByIssuedByOrBilledTo(UUID issuedBy, UUID billedTo);
+    @Query(value = """
+SELECT * FROM invoice WHERE issued_by = :personId AND status = :status
+UNION ALL
+SELECT * FROM invoice WHERE billed_to = :personId AND status = :status AND issued_by IS DISTINCT FROM :personId
+""", nativeQuery = true)
+    List<Invoice> findByCustomerAndStatus(UUID personId, String status);
+
+    /**
+     * Lädt mehrere Rechnungen in einem Zugriff. Das Array wird als ein Parameter gebunden, daher verwendet
+     * PostgreSQL unabhängig von der Anzahl der IDs denselben Ausführungsplan.
+     */
+    @Query(value = "SELECT * FROM invoice WHERE id = ANY(:ids)", nativeQuery = true)
+    List<Invoice> findByIdIn(UUID[] ids);
+
+    /**
+     * Alle Rechnungen mehrerer Personen als Aussteller ODER Empfänger. Rechnungen zwischen zwei angefragten Personen
+     * liefert nur die Aussteller-Seite.
+     */
+    @Query(value = """
+SELECT * FROM invoice WHERE issued_by = ANY(:personIds)
+UNION ALL
+SELECT * FROM invoice WHERE billed_to = ANY(:personIds) AND (issued_by IS NULL OR issued_by <> ALL(:personIds))
+""", nativeQuery = true)
+    List<Invoice> findByCustomers(UUID[] personIds);
 
     List<Invoice> findByIssuedByAndStatus(UUID personId, StatusType status);
 
     List<Invoice> findByBilledToAndStatus(UUID personId, StatusType status);
-}
 
+    /**
+     * Summiert die Rechnungen eines Ausstellers mit Fälligkeit in {@code [from, to)} pro Zeitraum und Status direkt
+     * auf der Tabelle {@code invoice}; Rückfall für Bereiche, die der Monats-Rollup nicht abdeckt. Die Grenzen auf
+     * {@code due_date} beschränken den Scan auf die betroffenen Partitionen.
+     *
+     * @param unit Einheit für {@code date_trunc}, z.B. {@code day} oder {@code week}
+     */
+    @Query(value = """
+SELECT to_char(date_trunc(CAST(:unit AS text), due_date), 'YYYY-MM-DD') AS period,
+       status,
+       count(*) AS "invoiceCount",
+       coalesce(sum(amount), 0) AS "totalAmount"
+FROM invoice
+WHERE issued_by = :issuedBy AND due_date >= :from AND due_date < :to
+GROUP BY 1, status
+""", nativeQuery = true)
+    List<RevenueRow> sumRevenueByPeriod(UUID issuedBy, LocalDateTime from, LocalDateTime to, String unit);
+
+    /**
+     * Offene Rechnungen eines Ausstellers nach Tagen seit Fälligkeit in einem Durchlauf über
+     * {@code idx_invoice_open_issued_by_due_date}.
+     *
+     * @param today Stichtag; Rechnungen mit Fälligkeit ab diesem Tag sind {@code current}
+     */
+    @Query(value = """
+SELECT bucket, count(*) AS "invoiceCount", coalesce(sum(amount), 0) AS "totalAmount"
+FROM (
+    SELECT amount,
+           CASE
+               WHEN due_date >= :today THEN 'current'
+               WHEN due_date >= CAST(:today AS date) - 30 THEN '1-30'
+               WHEN due_date >= CAST(:today AS date) - 60 THEN '31-60'
+               WHEN due_date >= CAST(:today AS date) - 90 THEN '61-90'
+               ELSE '90+'
+           END AS bucket
+    FROM invoice
+    WHERE issued_by = :issuedBy AND status <> 'PAID'
+) AS open_invoice
+GROUP BY bucket
+""", nativeQuery = true)
+    List<AgingRow> agingBuckets(UUID issuedBy, LocalDate today);
+}
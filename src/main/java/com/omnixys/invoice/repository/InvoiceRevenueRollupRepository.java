@@ -0,0 +1,107 @@
+package com.omnixys.invoice.repository;
+
+import com.omnixys.invoice.models.entitys.InvoiceRevenueRollup;
+import com.omnixys.invoice.models.entitys.InvoiceRevenueRollupId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface InvoiceRevenueRollupRepository extends JpaRepository<InvoiceRevenueRollup, InvoiceRevenueRollupId> {
+    /**
+     * Monate mit angehängter Monatspartition. Nur diese lassen sich aus {@code invoice} nachrechnen: abgehängte Monate
+     * bleiben im Rollup erhalten, und Zeilen aus {@code invoice_default} können zu einem abgehängten Monat gehören.
+     */
+    String ATTACHED_MONTHS = """
+SELECT to_date(right(c.relname, 7), 'YYYY_MM') AS month
+FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+WHERE i.inhparent = CAST('invoice' AS regclass) AND c.relname ~ '^invoice_[0-9]{4}_[0-9]{2}$'
+""";
+
+    /**
+     * Addiert die Deltas atomar auf eine Zeile; fehlende Zeilen werden angelegt.
+     */
+    @Modifying
+    @Query(value = """
+INSERT INTO invoice_revenue_rollup (issued_by, month, status, invoice_count, total_amount)
+VALUES (:issuedBy, :month, :status, :countDelta, :amountDelta)
+ON CONFLICT (issued_by, month, status) DO UPDATE
+SET invoice_count = invoice_revenue_rollup.invoice_count + EXCLUDED.invoice_count,
+    total_amount = invoice_revenue_rollup.total_amount + EXCLUDED.total_amount
+""", nativeQuery = true)
+    void upsertDelta(UUID issuedBy, LocalDate month, String status, long countDelta, BigDecimal amountDelta);
+
+    /**
+     * Summiert die Monate {@code [fromMonth, toMonth)} eines Ausstellers pro Zeitraum und Status.
+     *
+     * @param unit Einheit für {@code date_trunc}, mindestens {@code month}
+     */
+    @Query(value = """
+SELECT to_char(date_trunc(CAST(:unit AS text), month::timestamp), 'YYYY-MM-DD') AS period,
+       status,
+       sum(invoice_count) AS "invoiceCount",
+       sum(total_amount) AS "totalAmount"
+FROM invoice_revenue_rollup
+WHERE issued_by = :issuedBy AND month >= :fromMonth AND month < :toMonth
+GROUP BY 1, status
+""", nativeQuery = true)
+    List<RevenueRow> sumByPeriod(UUID issuedBy, LocalDate fromMonth, LocalDate toMonth, String unit);
+
+    /**
+     * Löscht die Zeilen der Aussteller im Bereich {@code [lower, upper]} für alle {@link #ATTACHED_MONTHS}.
+     */
+    @Modifying
+    @Query(value = """
+DELETE FROM invoice_revenue_rollup
+WHERE issued_by BETWEEN :lower AND :upper AND month IN (
+""" + ATTACHED_MONTHS + ")", nativeQuery = true)
+    int deleteRange(UUID lower, UUID upper);
+
+    /**
+     * Berechnet die Zeilen der Aussteller im Bereich {@code [lower, upper]} für alle {@link #ATTACHED_MONTHS} neu aus
+     * der Tabelle {@code invoice}.
+     */
+    @Modifying
+    @Query(value = """
+INSERT INTO invoice_revenue_rollup (issued_by, month, status, invoice_count, total_amount)
+SELECT issued_by, date_trunc('month', due_date)::date, status, count(*), coalesce(sum(amount), 0)
+FROM invoice
+WHERE issued_by BETWEEN :lower AND :upper AND tableoid <> CAST('invoice_default' AS regclass)
+GROUP BY issued_by, date_trunc('month', due_date), status
+ON CONFLICT (issued_by, month, status) DO UPDATE
+SET invoice_count = EXCLUDED.invoice_count,
+    total_amount = EXCLUDED.total_amount
+""", nativeQuery = true)
+    int insertRange(UUID lower, UUID upper);
+
+    /**
+     * Zählt die Abweichungen zwischen Rollup und einer Neuberechnung für Aussteller im Bereich {@code [lower, upper]}
+     * und alle {@link #ATTACHED_MONTHS}. Fehlende Zeilen werden als 0 gewertet.
+     */
+    @Query(value = """
+WITH expected AS (
+    SELECT issued_by, date_trunc('month', due_date)::date AS month, status,
+           count(*) AS invoice_count, coalesce(sum(amount), 0) AS total_amount
+    FROM invoice
+    WHERE issued_by BETWEEN :lower AND :upper AND tableoid <> CAST('invoice_default' AS regclass)
+    GROUP BY issued_by, date_trunc('month', due_date), status
+), actual AS (
+    SELECT issued_by, month, status, invoice_count, total_amount
+    FROM invoice_revenue_rollup
+    WHERE issued_by BETWEEN :lower AND :upper AND month IN (
+""" + ATTACHED_MONTHS + """
+    )
+)
+SELECT count(*)
+FROM expected e FULL JOIN actual a USING (issued_by, month, status)
+WHERE coalesce(e.invoice_count, 0) <> coalesce(a.invoice_count, 0)
+   OR coalesce(e.total_amount, 0) <> coalesce(a.total_amount, 0)
+""", nativeQuery = true)
+    long countMismatchesInRange(UUID lower, UUID upper);
+}
@@ -0,0 +1,96 @@
+package com.omnixys.invoice.repository;
+
+import com.omnixys.invoice.models.entitys.PersonInvoiceStats;
+import com.omnixys.invoice.models.entitys.PersonInvoiceStatsId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface PersonInvoiceStatsRepository extends JpaRepository<PersonInvoiceStats, PersonInvoiceStatsId> {
+
+    List<PersonInvoiceStats> findByIdPersonId(UUID personId);
+
+    /**
+     * Summiert Anzahl und Betrag mehrerer Personen als Aussteller ODER Empfänger in einem Zugriff.
+     * Selbst ausgestellte Rechnungen werden über {@code SELF_BILLED} nur einmal gezählt. Personen ohne Zeilen fehlen.
+     *
+     * @param status Optionaler Status; {@code null} für alle
+     */
+    @Query(value = """
+SELECT person_id AS "personId",
+       sum(CASE WHEN role = 'SELF_BILLED' THEN -invoice_count ELSE invoice_count END) AS "invoiceCount",
+       sum(CASE WHEN role = 'SELF_BILLED' THEN -total_amount ELSE total_amount END) AS "totalAmount"
+FROM person_invoice_stats
+WHERE person_id = ANY(:personIds) AND (CAST(:status AS text) IS NULL OR status = :status)
+GROUP BY person_id
+""", nativeQuery = true)
+    List<CustomerInfoRow> sumByPersonIds(UUID[] personIds, String status);
+
+    /**
+     * Addiert die Deltas atomar auf eine Zeile; fehlende Zeilen werden angelegt.
+     */
+    @Modifying
+    @Query(value = """
+INSERT INTO person_invoice_stats (person_id, role, status, invoice_count, total_amount)
+VALUES (:personId, :role, :status, :countDelta, :amountDelta)
+ON CONFLICT (person_id, role, status) DO UPDATE
+SET invoice_count = person_invoice_stats.invoice_count + EXCLUDED.invoice_count,
+    total_amount = person_invoice_stats.total_amount + EXCLUDED.total_amount
+""", nativeQuery = true)
+    void upsertDelta(UUID personId, String role, String status, long countDelta, BigDecimal amountDelta);
+
+    @Modifying
+    @Query(value = "DELETE FROM person_invoice_stats WHERE person_id BETWEEN :lower AND :upper", nativeQuery = true)
+    int deleteRange(UUID lower, UUID upper);
+
+    /**
+     * Berechnet alle Zeilen für Personen im Bereich {@code [lower, upper]} neu aus der Tabelle {@code invoice}.
+     */
+    @Modifying
+    @Query(value = """
+INSERT INTO person_invoice_stats (person_id, role, status, invoice_count, total_amount)
+SELECT issued_by, 'ISSUER', status, count(*), coalesce(sum(amount), 0)
+FROM invoice WHERE issued_by BETWEEN :lower AND :upper GROUP BY issued_by, status
+UNION ALL
+SELECT billed_to, 'RECIPIENT', status, count(*), coalesce(sum(amount), 0)
+FROM invoice WHERE billed_to BETWEEN :lower AND :upper GROUP BY billed_to, status
+UNION ALL
+SELECT issued_by, 'SELF_BILLED', status, count(*), coalesce(sum(amount), 0)
+FROM invoice WHERE issued_by BETWEEN :lower AND :upper AND issued_by = billed_to GROUP BY issued_by, status
+ON CONFLICT (person_id, role, status) DO UPDATE
+SET invoice_count = EXCLUDED.invoice_count,
+    total_amount = EXCLUDED.total_amount
+""", nativeQuery = true)
+    int insertRange(UUID lower, UUID upper);
+
+    /**
+     * Zählt die Abweichungen zwischen Read-Model und einer Neuberechnung für Personen im Bereich {@code [lower, upper]}.
+     * Fehlende Zeilen werden als 0 gewertet.
+     */
+    @Query(value = """
+WITH expected AS (
+    SELECT issued_by AS person_id, 'ISSUER' AS role, status, count(*) AS invoice_count, coalesce(sum(amount), 0) AS total_amount
+    FROM invoice WHERE issued_by BETWEEN :lower AND :upper GROUP BY issued_by, status
+    UNION ALL
+    SELECT billed_to, 'RECIPIENT', status, count(*), coalesce(sum(amount), 0)
+    FROM invoice WHERE billed_to BETWEEN :lower AND :upper GROUP BY billed_to, status
+    UNION ALL
+    SELECT issued_by, 'SELF_BILLED', status, count(*), coalesce(sum(amount), 0)
+    FROM invoice WHERE issued_by BETWEEN :lower AND :upper AND issued_by = billed_to GROUP BY issued_by, status
+), actual AS (
+    SELECT person_id, role, status, invoice_count, total_amount
+    FROM person_invoice_stats WHERE person_id BETWEEN :lower AND :upper
+)
+SELECT count(*)
+FROM expected e FULL JOIN actual a USING (person_id, role, status)
+WHERE coalesce(e.invoice_count, 0) <> coalesce(a.invoice_count, 0)
+   OR coalesce(e.total_amount, 0) <> coalesce(a.total_amount, 0)
+""", nativeQuery = true)
+    long countMismatchesInRange(UUID lower, UUID upper);
+}
@@ -0,0 +1,19 @@
+package com.omnixys.invoice.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Projektion einer Umsatzzeile: Anzahl und Summe pro Zeitraum und Status.
+ */
+public interface RevenueRow {
+    /**
+     * @return Beginn des Zeitraums im Format {@code yyyy-MM-dd}
+     */
+    String getPeriod();
+
+    String getStatus();
+
+    long getInvoiceCount();
+
+    BigDecimal getTotalAmount();
+}
@@ -1,19 +1,18 @@
 package com.omnixys.invoice.repository;
 
+import com.omnixys.invoice.exception.BadUserInputException;
 import com.omnixys.invoice.models.entitys.Invoice;
 import com.omnixys.invoice.models.entitys.Invoice_;
-import com.omnixys.invoice.models.enums.InfoType;
 import com.omnixys.invoice.models.enums.StatusType;
+import com.omnixys.invoice.models.inputs.SearchCriteria;
+import jakarta.persistence.metamodel.SingularAttribute;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Component;
 
-import java.math.BigDecimal;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -22,155 +21,138 @@ import java.util.UUID;
 public class SpecificationBuilder {
 
   /**
-   * Erstellt eine JPA-Spezifikation basierend auf den Suchkriterien.
-   *
-   * @param queryParams Suchkriterien als Map
-   * @return Optionale Spezifikation für die Filterung von Rechnungen
+   * Sortierung für die Keyset-Pagination: neueste Rechnungen zuerst, die ID als eindeutiger Tie-Breaker.
    */
-  public Optional<Specification<Invoice>> build(final Map<String, ? extends List<Object>> queryParams) {
-    log.debug("build: queryParams={}", queryParams);
+  public static final Sort KEYSET_SORT = Sort.by(
+      Sort.Order.desc(Invoice_.CREATED),
+      Sort.Order.desc(Invoice_.ID)
+  );
 
-    if (queryParams.isEmpty()) {
-      // No search criteria provided
+  /**
+   * Erstellt eine JPA-Spezifikation direkt aus den typisierten Suchkriterien.
+   * <p>
+   * Die Prädikate werden ohne Umweg über Strings aus den Metamodell-Attributen von {@link Invoice_} gebildet.
+   * Widersprüchliche Kriterien werden vorab abgelehnt. {@code infoType} ist kein Filter und wird ignoriert.
+   * </p>
+   *
+   * @param criteria Die Suchkriterien
+   * @return Spezifikation für die Filterung oder leer, falls keine Kriterien gesetzt sind
+   * @throws BadUserInputException Wenn die Kriterien ungültig sind oder sich widersprechen
+   */
+  public Optional<Specification<Invoice>> build(final SearchCriteria criteria) {
+    log.debug("build: criteria={}", criteria);
+    if (criteria == null || criteria.isEmpty()) {
       return Optional.empty();
     }
+    validate(criteria);
 
-    final var specs = queryParams
-      .entrySet()
-      .stream()
-      .map(this::toSpecification)
-      .toList();
-
-    if (specs.isEmpty() || specs.contains(null)) {
-      return Optional.empty();
+    final List<Specification<Invoice>> specs = new ArrayList<>();
+    if (criteria.status() != null) {
+      specs.add(equal(Invoice_.status, status(criteria.status())));
+    }
+    if (criteria.issuedBy() != null) {
+      specs.add(equal(Invoice_.issuedBy, criteria.issuedBy()));
+    }
+    if (criteria.billedTo() != null) {
+      specs.add(equal(Invoice_.billedTo, criteria.billedTo()));
+    }
+    if (criteria.dueBefore() != null) {
+      specs.add((root, _, cb) -> cb.lessThan(root.get(Invoice_.dueDate), criteria.dueBefore()));
+    }
+    if (criteria.dueAfter() != null) {
+      specs.add((root, _, cb) -> cb.greaterThan(root.get(Invoice_.dueDate), criteria.dueAfter()));
+    }
+    if (criteria.minAmount() != null) {
+      specs.add((root, _, cb) -> cb.greaterThanOrEqualTo(root.get(Invoice_.amount), criteria.minAmount()));
+    }
+    if (criteria.maxAmount() != null) {
+      specs.add((root, _, cb) -> cb.lessThanOrEqualTo(root.get(Invoice_.amount), criteria.maxAmount()));
     }
-
     return Optional.of(Specification.allOf(specs));
   }
 
   /**
-   * Erstellt eine OR-verknüpfte JPA-Spezifikation für die gegebenen Schlüssel.
+   * Aussteller-Seite der Kundenabfrage: {@code issuedBy = :personId}.
+   *
+   * @param personId Die ID der Person
+   * @return Spezifikation für die von der Person ausgestellten Rechnungen
    */
-  public Optional<Specification<Invoice>> buildOr(final Map<String, ? extends List<Object>> queryParams, List<String> orKeys) {
-    log.debug("buildOr: orKeys={} queryParams={}", orKeys, queryParams);
-    if (queryParams.isEmpty() || orKeys.isEmpty()) return Optional.empty();
-
-    var specs = orKeys.stream()
-        .map(key -> Optional.ofNullable(queryParams.get(key))
-            .map(val -> Map.entry(key, val)))
-        .filter(Optional::isPresent)
-        .map(Optional::get)
-        .map(this::toSpecification)
-        .filter(Objects::nonNull)
-        .toList();
-
-    return specs.isEmpty() ? Optional.empty() : Optional.of(Specification.anyOf(specs));
+  public Specification<Invoice> issuedBy(final UUID personId) {
+    return equal(Invoice_.issuedBy, personId);
   }
 
   /**
-   * Wandelt ein Suchkriterium in eine JPA-Spezifikation um.
+   * Empfänger-Seite der Kundenabfrage: {@code billedTo = :personId AND issuedBy IS DISTINCT FROM :personId}.
+   * <p>
+   * Rechnungen an sich selbst sind bereits in {@link #issuedBy(UUID)} enthalten und werden hier ausgeschlossen.
+   * </p>
+   *
+   * @param personId Die ID der Person
+   * @return Spezifikation für die an die Person gestellten Rechnungen anderer Aussteller
    */
-  private Specification<Invoice> toSpecification(final Map.Entry<String, ? extends List<Object>> entry) {
-    log.trace("toSpec: entry={}", entry);
-    final var key = entry.getKey();
-    final var values = entry.getValue();
-
-    if (values == null || values.size() != 1) {
-      return null;
-    }
-
-    final var value = values.getFirst();
-    return switch (key) {
-      case "infoType" -> infoType(value.toString());
-      case "status" -> status(value.toString());
-      case "issuedBy" -> personMatch("issuedBy", value.toString());
-      case "billedTo" -> personMatch("billedTo", value.toString());
-      case "minAmount" -> minAmount(value.toString());
-      case "maxAmount" -> maxAmount(value.toString());
-      case "dueBefore" -> before(value.toString());
-      case "dueAfter" -> after(value.toString());
-      default -> {
-        log.warn("Unbekanntes Suchkriterium: {}", key);
-        yield null;
-      }
+  public Specification<Invoice> billedToByOthers(final UUID personId) {
+    return (root, _, cb) -> {
+      final var issuedBy = root.get(Invoice_.issuedBy);
+      return cb.and(
+          cb.equal(root.get(Invoice_.billedTo), personId),
+          cb.or(cb.notEqual(issuedBy, personId), cb.isNull(issuedBy))
+      );
     };
   }
 
   /**
-   * Erstellt eine Spezifikation für das InfoType-Feld.
+   * Erstellt eine Spezifikation, die alle Rechnungen hinter der Keyset-Position liefert.
+   * <p>
+   * Entspricht {@code (created, id) < (:created, :id)} bei absteigender Sortierung. Die zusätzliche Bedingung
+   * {@code created <= :created} begrenzt den Scan über den Index {@code (created, id)}.
+   * </p>
+   *
+   * @param cursor Die Keyset-Position
+   * @return Spezifikation für die nachfolgenden Rechnungen
    */
-  private Specification<Invoice> infoType(final String value) {
-    try {
-      InfoType type = InfoType.valueOf(value.toUpperCase());
-      return (root, query, builder) -> builder.equal(root.get("infoType"), type);
-    } catch (IllegalArgumentException e) {
-      log.error("Ungültiger InfoType: {}", value);
-      return null;
-    }
+  public Specification<Invoice> seek(final InvoiceCursor cursor) {
+    log.trace("seek: cursor={}", cursor);
+    return (root, _, cb) -> {
+      final var created = root.get(Invoice_.created);
+      return cb.and(
+          cb.lessThanOrEqualTo(created, cursor.created()),
+          cb.or(
+              cb.lessThan(created, cursor.created()),
+              cb.and(
+                  cb.equal(created, cursor.created()),
+                  cb.lessThan(root.get(Invoice_.id), cursor.id())
+              )
+          )
+      );
+    };
   }
 
   /**
-   * Erstellt eine Spezifikation für das StatusType-Feld.
+   * Prüft Kombinationen, die nie ein Ergebnis liefern können.
    */
-  private Specification<Invoice> status(final String value) {
-    try {
-    return (root, _, builder) -> builder.equal(
-        root.get(Invoice_.status),
-        StatusType.of(value)
-    );
-    } catch (IllegalArgumentException e) {
-      log.error("Ungültiger StatusType: {}", value);
-      return null;
-    }
-  }
-
-  private Specification<Invoice> personMatch(String field, String uuid) {
-    try {
-      UUID id = UUID.fromString(uuid);
-      return (root, query, cb) -> cb.equal(root.get(field), id);
-    } catch (IllegalArgumentException e) {
-      log.error("Ungültige UUID für {}: {}", field, uuid);
-      return null;
+  private static void validate(final SearchCriteria criteria) {
+    if (criteria.dueBefore() != null && criteria.dueAfter() != null
+        && !criteria.dueAfter().isBefore(criteria.dueBefore())) {
+      throw new BadUserInputException(String.format(
+          "'dueAfter' (%s) muss vor 'dueBefore' (%s) liegen.", criteria.dueAfter(), criteria.dueBefore()));
     }
-  }
-
-  private Specification<Invoice> before(String value) {
-    try {
-      var date = LocalDateTime.parse(value);
-      return (root, query, cb) -> cb.lessThan(root.get("dueDate"), date);
-    } catch (DateTimeParseException e) {
-      log.error("Ungültiges Datumsformat (before): {}", value);
-      return null;
+    if (criteria.minAmount() != null && criteria.maxAmount() != null
+        && criteria.minAmount().compareTo(criteria.maxAmount()) > 0) {
+      throw new BadUserInputException(String.format(
+          "'minAmount' (%s) darf nicht größer als 'maxAmount' (%s) sein.", criteria.minAmount(), criteria.maxAmount()));
     }
   }
 
-  private Specification<Invoice> after(String value) {
+  static StatusType status(final String value) {
     try {
-      var date = LocalDateTime.parse(value);
-      return (root, query, cb) -> cb.greaterThan(root.get("dueDate"), date);
-    } catch (DateTimeParseException e) {
-      log.error("Ungültiges Datumsformat (after): {}", value);
-      return null;
-    }
-  }
-
-  private Specification<Invoice> minAmount(String value) {
-    try {
-      var amount = new BigDecimal(value);
-      return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("amount"), amount);
-    } catch (NumberFormatException e) {
-      log.error("Ungültiger minAmount: {}", value);
-      return null;
+      return StatusType.of(value);
+    } catch (IllegalArgumentException e) {
+      log.error("Ungültiger StatusType: {}", value);
+      throw new BadUserInputException(String.format("Ungültiger Status: %s", value));
     }
   }
 
-  private Specification<Invoice> maxAmount(String value) {
-    try {
-      var amount = new BigDecimal(value);
-      return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("amount"), amount);
-    } catch (NumberFormatException e) {
-      log.error("Ungültiger maxAmount: {}", value);
-      return null;
-    }
+  private static <T> Specification<Invoice> equal(final SingularAttribute<Invoice, T> attribute, final T value) {
+    return (root, _, cb) -> cb.equal(root.get(attribute), value);
   }
 }
@@ -0,0 +1,54 @@
+package com.omnixys.invoice.resolvers;
+
+import com.omnixys.invoice.models.entitys.Invoice;
+import com.omnixys.invoice.repository.InvoiceRepository;
+import com.omnixys.invoice.tracing.LoggerPlus;
+import com.omnixys.invoice.tracing.LoggerPlusFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.graphql.data.federation.EntityMapping;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Controller;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Auflösung von {@code Invoice}-Entities über {@code _entities} für das Federation-Gateway.
+ * <p>
+ * Alle Repräsentationen einer Gateway-Anfrage werden gemeinsam übergeben und mit einer Abfrage geladen.
+ * </p>
+ */
+@Controller
+@RequiredArgsConstructor
+public class InvoiceEntityResolver {
+
+    private final InvoiceRepository invoiceRepository;
+    private final LoggerPlusFactory factory;
+    private LoggerPlus logger() {
+        return factory.getLogger(getClass());
+    }
+
+    /**
+     * Lädt die Rechnungen zu allen Repräsentationen {@code { __typename: "Invoice", id }} einer Anfrage.
+     *
+     * @param idList Die IDs aller Repräsentationen in Anfragereihenfolge
+     * @return Die Rechnungen in derselben Reihenfolge; {@code null} für unbekannte IDs, die das Gateway als Fehler
+     * für genau diese Repräsentation erhält
+     */
+    @EntityMapping("Invoice")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER', 'SUPREME', 'ELITE', 'BASIC')")
+    List<Invoice> invoices(@Argument("idList") final List<UUID> idList) {
+        final var ids = new LinkedHashSet<>(idList);
+        final Map<UUID, Invoice> invoices = invoiceRepository.findByIdIn(ids.toArray(UUID[]::new)).stream()
+            .collect(Collectors.toMap(Invoice::getId, Function.identity()));
+        logger().debug("invoices: representations={} found={}", idList.size(), invoices.size());
+        return idList.stream()
+            .map(invoices::get)
+            .toList();
+    }
+}
@@ -0,0 +1,103 @@
+package com.omnixys.invoice.resolvers;
+
+import com.omnixys.invoice.models.dto.PaymentInfoDTO;
+import com.omnixys.invoice.models.entitys.Invoice;
+import com.omnixys.invoice.models.entitys.InvoicePayment;
+import com.omnixys.invoice.repository.InvoicePaymentRepository;
+import com.omnixys.invoice.security.CustomUserDetails;
+import com.omnixys.invoice.service.PaymentReadService;
+import com.omnixys.invoice.tracing.LoggerPlus;
+import com.omnixys.invoice.tracing.LoggerPlusFactory;
+import com.omnixys.invoice.util.CompactUuidList;
+import lombok.RequiredArgsConstructor;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Controller;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Resolver für Felder des GraphQL-Typs {@code Invoice}, die nicht direkt aus der Entity stammen.
+ * <p>
+ * Die Felder werden per DataLoader gebündelt: für alle Rechnungen einer Antwort wird nur eine Abfrage bzw. ein Aufruf
+ * ausgeführt.
+ * </p>
+ */
+@Controller
+@RequiredArgsConstructor
+public class InvoiceFieldResolver {
+
+    private final PaymentReadService paymentReadService;
+    private final InvoicePaymentRepository invoicePaymentRepository;
+    private final LoggerPlusFactory factory;
+    private LoggerPlus logger() {
+        return factory.getLogger(getClass());
+    }
+
+    /**
+     * Lädt die Zahlungs-IDs aller Rechnungen einer Antwort mit einer gemeinsamen Abfrage auf {@code invoice_payment}.
+     *
+     * @param invoices Alle Rechnungen der Antwort, deren Feld {@code payments} angefragt wurde
+     * @return Die Zahlungs-IDs je Rechnung
+     */
+    @BatchMapping(typeName = "Invoice", field = "payments")
+    Map<Invoice, List<UUID>> payments(final List<Invoice> invoices) {
+        final var paymentIdsByInvoice = paymentIdsByInvoice(invoices);
+        logger().debug("payments: invoices={} withPayments={}", invoices.size(), paymentIdsByInvoice.size());
+
+        final Map<Invoice, List<UUID>> result = new LinkedHashMap<>();
+        invoices.forEach(invoice -> result.put(invoice, paymentIdsByInvoice.getOrDefault(invoice.getId(), CompactUuidList.empty())));
+        return result;
+    }
+
+    /**
+     * Lädt die Zahlungsdetails aller Rechnungen einer Antwort mit einer gemeinsamen Anfrage an den Payment-Service.
+     *
+     * @param invoices       Alle Rechnungen der Antwort, deren Feld {@code paymentDetails} angefragt wurde
+     * @param authentication Die Authentifizierung des aktuell eingeloggten Benutzers
+     * @return Die Zahlungen je Rechnung
+     */
+    @BatchMapping(typeName = "Invoice", field = "paymentDetails")
+    Map<Invoice, List<PaymentInfoDTO>> paymentDetails(
+        final List<Invoice> invoices,
+        final Authentication authentication
+    ) {
+        final var paymentIdsByInvoice = paymentIdsByInvoice(invoices);
+        final var paymentIds = paymentIdsByInvoice.values().stream()
+            .flatMap(Collection::stream)
+            .toList();
+        logger().debug("paymentDetails: invoices={} paymentIds={}", invoices.size(), paymentIds.size());
+
+        final var user = (CustomUserDetails) authentication.getPrincipal();
+        final Map<UUID, PaymentInfoDTO> paymentsById = paymentReadService.fetchPayments(paymentIds, user)
+            .stream()
+            .collect(Collectors.toMap(PaymentInfoDTO::id, Function.identity()));
+
+        final Map<Invoice, List<PaymentInfoDTO>> result = new LinkedHashMap<>();
+        invoices.forEach(invoice -> result.put(invoice, paymentIdsByInvoice.getOrDefault(invoice.getId(), CompactUuidList.empty())
+            .stream()
+            .map(paymentsById::get)
+            .filter(Objects::nonNull)
+            .toList()));
+        return result;
+    }
+
+    private Map<UUID, CompactUuidList> paymentIdsByInvoice(final List<Invoice> invoices) {
+        final var invoiceIds = invoices.stream()
+            .map(Invoice::getId)
+            .toList();
+        return invoicePaymentRepository.findByInvoiceIdIn(invoiceIds)
+            .stream()
+            .collect(Collectors.groupingBy(
+                InvoicePayment::getInvoiceId,
+                Collectors.mapping(InvoicePayment::getPaymentId, CompactUuidList.collector())
+            ));
+    }
+}
@@ -3,6 +3,7 @@ package com.omnixys.invoice.resolvers;
 import com.omnixys.invoice.models.dto.PaymentDTO;
 import com.omnixys.invoice.models.inputs.CreateInvoiceInput;
 import com.omnixys.invoice.models.mapper.InvoiceMapper;
+import com.omnixys.invoice.models.payload.CreateInvoiceResult;
 import com.omnixys.invoice.security.CustomUserDetails;
 import com.omnixys.invoice.service.InvoiceWriteService;
 import com.omnixys.invoice.tracing.LoggerPlus;
@@ -17,6 +18,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.UUID;
 
 @Controller
@@ -49,6 +51,25 @@ public class InvoiceMutationResolver {
             return id;
     }
 
+    /**
+     * Erstellt viele Rechnungen auf einmal; fehlerhafte Einträge brechen die übrigen nicht ab.
+     */
+    @MutationMapping("createInvoices")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    public List<CreateInvoiceResult> createInvoices(
+        @Argument("inputs") final List<CreateInvoiceInput> inputs,
+        final Authentication authentication
+    ) {
+        logger().debug("createInvoices: inputs={}", inputs.size());
+
+        final var invoices = inputs.stream()
+            .map(invoiceMapper::toInvoice)
+            .toList();
+        final var results = invoiceWriteService.createAll(invoices);
+        logger().debug("createInvoices: results={}", results.size());
+        return results;
+    }
+
 //    /**
 //     * Aktualisiert eine bestehende Rechnung.
 //     */
@@ -1,19 +1,28 @@
 package com.omnixys.invoice.resolvers;
 
 import com.omnixys.invoice.exception.AccessForbiddenException;
+import com.omnixys.invoice.exception.BadUserInputException;
 import com.omnixys.invoice.exception.NotFoundException;
 import com.omnixys.invoice.models.entitys.Invoice;
 import com.omnixys.invoice.models.enums.InfoType;
+import com.omnixys.invoice.models.enums.RevenueGranularity;
 import com.omnixys.invoice.models.enums.StatusType;
 import com.omnixys.invoice.models.inputs.InfoInput;
 import com.omnixys.invoice.models.inputs.SearchCriteria;
+import com.omnixys.invoice.models.payload.AgingReport;
+import com.omnixys.invoice.models.payload.CustomerInfoResult;
 import com.omnixys.invoice.models.payload.InfoPayload;
+import com.omnixys.invoice.models.payload.InvoiceConnection;
+import com.omnixys.invoice.models.payload.InvoiceResult;
+import com.omnixys.invoice.models.payload.RevenuePeriod;
 import com.omnixys.invoice.security.CustomUserDetails;
 import com.omnixys.invoice.service.InvoiceReadService;
 import com.omnixys.invoice.tracing.LoggerPlus;
 import com.omnixys.invoice.tracing.LoggerPlusFactory;
 import graphql.GraphQLError;
 import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.DataFetchingFieldSelectionSet;
+import graphql.schema.SelectedField;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.graphql.data.method.annotation.Argument;
@@ -23,13 +32,17 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 
+import java.time.LocalDate;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
-import static java.util.Collections.emptyMap;
+import static org.springframework.graphql.execution.ErrorType.BAD_REQUEST;
 import static org.springframework.graphql.execution.ErrorType.FORBIDDEN;
+import static org.springframework.graphql.execution.ErrorType.INTERNAL_ERROR;
 import static org.springframework.graphql.execution.ErrorType.NOT_FOUND;
 
 @Controller
@@ -57,17 +70,33 @@ public class InvoiceQueryResolver {
         return invoice;
     }
 
+    @QueryMapping("invoicesByIds")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER', 'SUPREME', 'ELITE', 'BASIC')")
+    List<InvoiceResult> getByIds(
+        @Argument("ids") final List<UUID> ids,
+        final Authentication authentication
+    ) {
+        logger().debug("getByIds: ids={}", ids);
+
+        final var user = (CustomUserDetails) authentication.getPrincipal();
+        final var results = invoiceReadService.findByIds(ids, user);
+
+        logger().debug("getByIds: results={}", results.size());
+        return results;
+    }
+
     @QueryMapping("invoices")
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
     Collection<Invoice> getInvoices(
         @Argument("searchCriteria") final Optional<SearchCriteria> input,
+        final DataFetchingFieldSelectionSet selectionSet,
         final Authentication authentication
     ) {
         logger().debug("getInvoices: inputs={}", input);
 
         final var user = (CustomUserDetails) authentication.getPrincipal();
-        final var searchCriteria = input.map(SearchCriteria::toMap).orElse(emptyMap());
-        final var invoices = invoiceReadService.find(searchCriteria, user);
+        final var searchCriteria = input.orElse(SearchCriteria.NONE);
+        final var invoices = invoiceReadService.find(searchCriteria, selectedFields(selectionSet), user);
         logger().debug("getInvoices: Invoices={}", invoices);
         return invoices;
     }
@@ -77,17 +106,53 @@ public class InvoiceQueryResolver {
     Collection<Invoice> getInvoicesByCustomer(
         @Argument("customerId") UUID customerId,
         @Argument("searchCriteria") final Optional<SearchCriteria> input,
+        final DataFetchingFieldSelectionSet selectionSet,
         final Authentication authentication
     ) {
         logger().debug("getInvoicesByCustomer: customerId={}, searchCriteria={}", customerId, input);
 
         final var user = (CustomUserDetails) authentication.getPrincipal();
-        final var searchCriteria = input.map(SearchCriteria::toMap).orElse(emptyMap());
-        final var invoices = invoiceReadService.findByCustomer(customerId, searchCriteria, user);
+        final var searchCriteria = input.orElse(SearchCriteria.NONE);
+        final var invoices = invoiceReadService.findByCustomer(customerId, searchCriteria, selectedFields(selectionSet), user);
         logger().debug("getInvoicesByCustomer: Invoices={}", invoices);
         return invoices;
     }
 
+    @QueryMapping("invoicesConnection")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    InvoiceConnection getInvoicesConnection(
+        @Argument("first") final Integer first,
+        @Argument("after") final String after,
+        @Argument("searchCriteria") final Optional<SearchCriteria> input,
+        final Authentication authentication
+    ) {
+        logger().debug("getInvoicesConnection: first={}, after={}, inputs={}", first, after, input);
+
+        final var user = (CustomUserDetails) authentication.getPrincipal();
+        final var searchCriteria = input.orElse(SearchCriteria.NONE);
+        final var connection = invoiceReadService.findPage(searchCriteria, first, after, user);
+        logger().debug("getInvoicesConnection: pageInfo={}", connection.pageInfo());
+        return connection;
+    }
+
+    @QueryMapping("invoicesByCustomerConnection")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER', 'SUPREME', 'ELITE', 'BASIC')")
+    InvoiceConnection getInvoicesByCustomerConnection(
+        @Argument("customerId") final UUID customerId,
+        @Argument("first") final Integer first,
+        @Argument("after") final String after,
+        @Argument("searchCriteria") final Optional<SearchCriteria> input,
+        final Authentication authentication
+    ) {
+        logger().debug("getInvoicesByCustomerConnection: customerId={}, first={}, after={}", customerId, first, after);
+
+        final var user = (CustomUserDetails) authentication.getPrincipal();
+        final var searchCriteria = input.orElse(SearchCriteria.NONE);
+        final var connection = invoiceReadService.findPageByCustomer(customerId, searchCriteria, first, after, user);
+        logger().debug("getInvoicesByCustomerConnection: pageInfo={}", connection.pageInfo());
+        return connection;
+    }
+
     @QueryMapping("totalInvoicesInfo")
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
     InfoPayload totalInvoiceInfo(
@@ -100,7 +165,7 @@ public class InvoiceQueryResolver {
         logger().debug("totalInvoiceInfo: isIssuer={}, personId={}, infoType={}, statusType={}", isIssuer, personId, infoType, statusType);
 
         final var user = (CustomUserDetails) authentication.getPrincipal();
-        final var payload = invoiceReadService.totalInfo(isIssuer, personId, infoType, statusType, user.getToken());
+        final var payload = invoiceReadService.totalInfo(isIssuer, personId, infoType, statusType, user);
         logger().debug("totalInvoiceInfo: payload={}", payload);
         return payload;
     }
@@ -121,6 +186,45 @@ public class InvoiceQueryResolver {
         return payload;
     }
 
+    @QueryMapping("invoiceInfoByCustomers")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER', 'SUPREME', 'ELITE', 'BASIC')")
+    List<CustomerInfoResult> invoiceInfoByCustomers(
+        @Argument("customerIds") final List<UUID> customerIds,
+        @Argument("infoType") final InfoType infoType,
+        @Argument("status") final String statusType,
+        final Authentication authentication
+    ) {
+        logger().debug("invoiceInfoByCustomers: customerIds={}, infoType={}, statusType={}", customerIds, infoType, statusType);
+
+        final var user = (CustomUserDetails) authentication.getPrincipal();
+        final var results = invoiceReadService.infoByCustomers(customerIds, infoType, statusType, user);
+        logger().debug("invoiceInfoByCustomers: results={}", results.size());
+        return results;
+    }
+
+    @QueryMapping("revenueByPeriod")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    List<RevenuePeriod> revenueByPeriod(
+        @Argument("personId") final UUID personId,
+        @Argument("from") final LocalDate from,
+        @Argument("to") final LocalDate to,
+        @Argument("granularity") final Optional<RevenueGranularity> granularity
+    ) {
+        logger().debug("revenueByPeriod: personId={}, from={}, to={}, granularity={}", personId, from, to, granularity);
+        final var periods = invoiceReadService.revenueByPeriod(personId, from, to, granularity.orElse(RevenueGranularity.MONTH));
+        logger().debug("revenueByPeriod: periods={}", periods.size());
+        return periods;
+    }
+
+    @QueryMapping("agingReport")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    AgingReport agingReport(@Argument("issuerId") final UUID issuerId) {
+        logger().debug("agingReport: issuerId={}", issuerId);
+        final var report = invoiceReadService.agingReport(issuerId);
+        logger().debug("agingReport: report={}", report);
+        return report;
+    }
+
     @QueryMapping("paymentInfo")
     @PreAuthorize("hasAnyRole('ADMIN', 'USER', 'SUPREME', 'ELITE', 'BASIC')")
     InfoPayload getPaymentInfo(
@@ -130,12 +234,21 @@ public class InvoiceQueryResolver {
         logger().debug("addContact: id={}", id);
 
         final var user = (CustomUserDetails) authentication.getPrincipal();
-        final var payload = invoiceReadService.paymentInfo(id, user.getToken());
+        final var payload = invoiceReadService.paymentInfo(id, user);
 
         logger().debug("addContact: payload={}", payload);
         return payload;
     }
 
+    /**
+     * Liefert die Namen der direkt angefragten Felder, damit nur die benötigten Spalten gelesen werden.
+     */
+    private static Set<String> selectedFields(final DataFetchingFieldSelectionSet selectionSet) {
+        return selectionSet.getImmediateFields().stream()
+            .map(SelectedField::getName)
+            .collect(Collectors.toSet());
+    }
+
     /**
      * Behandelt eine `AccessForbiddenException` und gibt ein entsprechendes GraphQL-Fehlerobjekt zurück.
      *
@@ -171,4 +284,41 @@ public class InvoiceQueryResolver {
             .location(env.getExecutionStepInfo().getField().getSingleField().getSourceLocation()) // GraphQL Location
             .build();
     }
+
+    /**
+     * Behandelt eine `BadUserInputException` und gibt ein entsprechendes GraphQL-Fehlerobjekt zurück.
+     *
+     * @param ex Die ausgelöste Ausnahme.
+     * @param env Das GraphQL-Umfeld für Fehlerinformationen.
+     * @return Ein `GraphQLError` mit der Fehlerbeschreibung.
+     */
+    @GraphQlExceptionHandler
+    GraphQLError onBadUserInput(final BadUserInputException ex, DataFetchingEnvironment env) {
+        logger().error("onBadUserInput: {}", ex.getMessage());
+        return GraphQLError.newError()
+            .errorType(BAD_REQUEST)
+            .message(ex.getMessage())
+            .path(env.getExecutionStepInfo().getPath().toList()) // Dynamischer Query-Pfad
+            .location(env.getExecutionStepInfo().getField().getSingleField().getSourceLocation()) // GraphQL Location
+            .build();
+    }
+
+    /**
+     * Behandelt eine `ArithmeticException`, z.B. wenn die Anzahl eines Aggregats nicht in ein GraphQL-{@code Int}
+     * passt, und gibt ein entsprechendes GraphQL-Fehlerobjekt zurück.
+     *
+     * @param ex Die ausgelöste Ausnahme.
+     * @param env Das GraphQL-Umfeld für Fehlerinformationen.
+     * @return Ein `GraphQLError` mit der Fehlerbeschreibung.
+     */
+    @GraphQlExceptionHandler
+    GraphQLError onArithmetic(final ArithmeticException ex, DataFetchingEnvironment env) {
+        logger().error("onArithmetic: {}", ex.getMessage());
+        return GraphQLError.newError()
+            .errorType(INTERNAL_ERROR)
+            .message("Das Ergebnis übersteigt den Wertebereich des Schemas.")
+            .path(env.getExecutionStepInfo().getPath().toList()) // Dynamischer Query-Pfad
+            .location(env.getExecutionStepInfo().getField().getSingleField().getSourceLocation()) // GraphQL Location
+            .build();
+    }
 }
@@ -0,0 +1,222 @@
+package com.omnixys.invoice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.omnixys.invoice.config.InfoCacheProperties;
+import com.omnixys.invoice.config.ReplicaProperties;
+import com.omnixys.invoice.models.enums.InfoType;
+import com.omnixys.invoice.models.enums.InvoiceRole;
+import com.omnixys.invoice.models.enums.StatusType;
+import com.omnixys.invoice.models.events.InvoiceChangedEvent;
+import com.omnixys.invoice.models.payload.InfoPayload;
+import com.omnixys.invoice.tracing.LoggerPlus;
+import com.omnixys.invoice.tracing.LoggerPlusFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cache für berechnete {@link InfoPayload}-Aggregate pro Person und pro Rechnung.
+ * <p>
+ * Die Einträge einer Person liegen gemeinsam unter ihrer ID, sodass eine Änderung genau die Aggregate von Aussteller
+ * und Empfänger verwirft. Gleichzeitige Anfragen auf einen fehlenden Eintrag warten auf dieselbe Berechnung, die im
+ * aufrufenden Thread (mit dessen Transaktion und Security-Kontext) läuft. Wird während einer laufenden Berechnung
+ * invalidiert, erhalten nur die bereits wartenden Aufrufer deren Ergebnis; gespeichert wird es nicht mehr.
+ * </p>
+ * <p>
+ * Berechnungen laufen in der {@code readOnly}-Transaktion des Aufrufers und lesen daher ggf. von einem Replikat. Nach
+ * einer Invalidierung werden Ergebnisse deshalb für {@code app.datasource.stickiness} nur ausgeliefert und nicht
+ * gespeichert: Replikate, die weiter hinterherhinken, verwendet {@code ReplicaRoutingDataSource} nicht, sodass ein
+ * danach gespeichertes Ergebnis die Änderung enthält. Ohne konfigurierte Replikate entfällt diese Wartezeit.
+ * </p>
+ * <p>
+ * Zahlungsaggregate werden mit dem JWT des Aufrufers beim Payment-Service berechnet und deshalb pro Aufrufer
+ * abgelegt; Rechnungsaggregate stammen aus der eigenen Datenbank und gelten für alle Aufrufer.
+ * </p>
+ */
+@Service
+public class InfoPayloadCache {
+    /**
+     * Schlüssel eines Aggregats innerhalb einer Person.
+     *
+     * @param role     {@link InvoiceRole#ISSUER}, {@link InvoiceRole#RECIPIENT} oder {@code null} für beide Rollen
+     * @param infoType Die Art des Aggregats
+     * @param status   Der Status oder {@code null} für alle
+     * @param caller   Der Benutzer, mit dessen Berechtigung berechnet wurde, oder {@code null}, wenn das Aggregat
+     *                 nicht vom Aufrufer abhängt
+     */
+    public record Key(InvoiceRole role, InfoType infoType, StatusType status, String caller) {
+    }
+
+    private final Cache<UUID, ConcurrentMap<Key, CompletableFuture<InfoPayload>>> byPerson;
+    private final Cache<UUID, ConcurrentMap<String, CompletableFuture<InfoPayload>>> byInvoice;
+    /** Personen und Rechnungen, deren Invalidierung kürzer als die maximale Replikationsverzögerung zurückliegt. */
+    private final Cache<UUID, Boolean> settling;
+    private final long settleNanos;
+    /** Zeitpunkt der letzten vollständigen Invalidierung, siehe {@link #invalidateAll()}. */
+    private final AtomicLong invalidatedAllAt;
+    private final Counter hits;
+    private final Counter misses;
+    private final LoggerPlusFactory factory;
+    private LoggerPlus logger() {
+        return factory.getLogger(getClass());
+    }
+
+    public InfoPayloadCache(
+        final InfoCacheProperties properties,
+        final ReplicaProperties replicaProperties,
+        final MeterRegistry meterRegistry,
+        final LoggerPlusFactory factory
+    ) {
+        this.factory = factory;
+        byPerson = Caffeine.newBuilder()
+            .maximumSize(properties.getMaxSize())
+            .expireAfterWrite(properties.getTtl())
+            .build();
+        byInvoice = Caffeine.newBuilder()
+            .maximumSize(properties.getMaxSize())
+            .expireAfterWrite(properties.getTtl())
+            .build();
+        final var settle = replicaProperties.getReplicas().isEmpty() ? Duration.ZERO : replicaProperties.getStickiness();
+        settling = Caffeine.newBuilder()
+            .maximumSize(properties.getMaxSize())
+            .expireAfterWrite(settle)
+            .build();
+        settleNanos = settle.toNanos();
+        invalidatedAllAt = new AtomicLong(System.nanoTime() - settleNanos);
+
+        hits = Counter.builder("invoice.info.cache.requests")
+            .description("Zugriffe auf den Cache der InfoPayload-Aggregate")
+            .tag("result", "hit")
+            .register(meterRegistry);
+        misses = Counter.builder("invoice.info.cache.requests")
+            .description("Zugriffe auf den Cache der InfoPayload-Aggregate")
+            .tag("result", "miss")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Liefert ein Aggregat einer Person aus dem Cache oder berechnet es.
+     *
+     * @param personId Die Person
+     * @param key      Rolle, Art und Status des Aggregats
+     * @param loader   Berechnet das Aggregat bei einem Fehlzugriff
+     * @return Das Aggregat
+     */
+    public InfoPayload get(final UUID personId, final Key key, final Supplier<InfoPayload> loader) {
+        return load(personId, byPerson.get(personId, _ -> new ConcurrentHashMap<>()), key, loader);
+    }
+
+    /**
+     * Liefert das Zahlungsaggregat einer Rechnung aus dem Cache oder berechnet es.
+     *
+     * @param invoiceId Die Rechnung
+     * @param caller    Der Benutzer, mit dessen Berechtigung der Payment-Service abgefragt wird
+     * @param loader    Berechnet das Aggregat bei einem Fehlzugriff
+     * @return Das Aggregat
+     */
+    public InfoPayload get(final UUID invoiceId, final String caller, final Supplier<InfoPayload> loader) {
+        return load(invoiceId, byInvoice.get(invoiceId, _ -> new ConcurrentHashMap<>()), caller, loader);
+    }
+
+    /**
+     * Verwirft nach dem Commit einer lokalen Änderung die betroffenen Aggregate.
+     *
+     * @param event Die Änderung
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onInvoiceChanged(final InvoiceChangedEvent event) {
+        invalidate(event);
+    }
+
+    /**
+     * Verwirft die Aggregate der Rechnung sowie von Aussteller und Empfänger.
+     *
+     * @param event Die Änderung
+     */
+    public void invalidate(final InvoiceChangedEvent event) {
+        logger().trace("invalidate: invoiceId={} issuedBy={} billedTo={}",
+            event.invoiceId(), event.issuedBy(), event.billedTo());
+        byInvoice.invalidate(event.invoiceId());
+        settling.put(event.invoiceId(), Boolean.TRUE);
+        if (event.issuedBy() != null) {
+            byPerson.invalidate(event.issuedBy());
+            settling.put(event.issuedBy(), Boolean.TRUE);
+        }
+        if (event.billedTo() != null) {
+            byPerson.invalidate(event.billedTo());
+            settling.put(event.billedTo(), Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Verwirft die Aggregate mehrerer Personen, z.B. nach einem Block neuer Rechnungen.
+     *
+     * @param personIds Die betroffenen Personen
+     */
+    public void invalidatePersons(final Collection<UUID> personIds) {
+        logger().trace("invalidatePersons: {}", personIds.size());
+        byPerson.invalidateAll(personIds);
+        personIds.forEach(personId -> settling.put(personId, Boolean.TRUE));
+    }
+
+    /**
+     * Verwirft alle Aggregate, z.B. nachdem eine Partition abgehängt wurde.
+     */
+    public void invalidateAll() {
+        logger().debug("invalidateAll");
+        invalidatedAllAt.set(System.nanoTime());
+        byInvoice.invalidateAll();
+        byPerson.invalidateAll();
+    }
+
+    private boolean isSettling(final UUID id) {
+        return settling.getIfPresent(id) != null || System.nanoTime() - invalidatedAllAt.get() < settleNanos;
+    }
+
+    private <K> InfoPayload load(
+        final UUID id,
+        final ConcurrentMap<K, CompletableFuture<InfoPayload>> entries,
+        final K key,
+        final Supplier<InfoPayload> loader
+    ) {
+        final var pending = new CompletableFuture<InfoPayload>();
+        final var existing = entries.putIfAbsent(key, pending);
+        if (existing != null) {
+            hits.increment();
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        misses.increment();
+        try {
+            final var payload = loader.get();
+            pending.complete(payload);
+            if (isSettling(id)) {
+                // möglicherweise von einem Replikat ohne die letzte Änderung gelesen
+                entries.remove(key, pending);
+            }
+            return payload;
+        } catch (RuntimeException e) {
+            // Fehler nicht cachen: der nächste Aufruf berechnet neu
+            entries.remove(key, pending);
+            pending.completeExceptionally(e);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.omnixys.invoice.service;
+
+import com.omnixys.invoice.messaging.KafkaPublisherService;
+import com.omnixys.invoice.models.entitys.Invoice;
+import com.omnixys.invoice.models.events.InvoiceChangedEvent;
+import com.omnixys.invoice.models.events.InvoicePartitionDetachedEvent;
+import com.omnixys.invoice.models.events.InvoiceStatusChangedEvent;
+import com.omnixys.invoice.models.events.InvoicesCreatedEvent;
+import com.omnixys.invoice.tracing.LoggerPlus;
+import com.omnixys.invoice.tracing.LoggerPlusFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.UUID;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Hält den Second-Level-Cache der Rechnungen (Region {@value Invoice#CACHE_REGION}) über alle Replikate konsistent.
+ * <p>
+ * Lokale Änderungen aktualisieren den Cache dieser Instanz bereits über Hibernate ({@code READ_WRITE}). Nach dem
+ * Commit wird ein {@link InvoiceChangedEvent} über Kafka verteilt; die anderen Replikate entfernen den Eintrag daraufhin
+ * aus ihrem Cache. Eigene Events werden anhand der Instanz-ID übersprungen.
+ * </p>
+ */
+@Service
+public class InvoiceCacheService {
+    private final String instanceId = UUID.randomUUID().toString();
+    private final EntityManagerFactory entityManagerFactory;
+    private final KafkaPublisherService kafkaPublisherService;
+    private final InfoPayloadCache infoPayloadCache;
+    private final Counter published;
+    private final Counter stale;
+    private final Counter absent;
+    private final LoggerPlusFactory factory;
+    private LoggerPlus logger() {
+        return factory.getLogger(getClass());
+    }
+
+    public InvoiceCacheService(
+        final EntityManagerFactory entityManagerFactory,
+        final KafkaPublisherService kafkaPublisherService,
+        final InfoPayloadCache infoPayloadCache,
+        final MeterRegistry meterRegistry,
+        final LoggerPlusFactory factory
+    ) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.kafkaPublisherService = kafkaPublisherService;
+        this.infoPayloadCache = infoPayloadCache;
+        this.factory = factory;
+
+        published = Counter.builder("invoice.cache.invalidations")
+            .description("Versendete und empfangene Cache-Invalidierungen")
+            .tag("source", "local")
+            .tag("result", "published")
+            .register(meterRegistry);
+        // Eintrag lag bis zum Eintreffen der Invalidierung veraltet im lokalen Cache
+        stale = Counter.builder("invoice.cache.invalidations")
+            .description("Versendete und empfangene Cache-Invalidierungen")
+            .tag("source", "remote")
+            .tag("result", "stale")
+            .register(meterRegistry);
+        absent = Counter.builder("invoice.cache.invalidations")
+            .description("Versendete und empfangene Cache-Invalidierungen")
+            .tag("source", "remote")
+            .tag("result", "absent")
+            .register(meterRegistry);
+
+        registerRegionMetrics(meterRegistry);
+    }
+
+    /**
+     * Verteilt eine Änderung nach erfolgreichem Commit an die anderen Replikate.
+     *
+     * @param event Die lokale Änderung
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onInvoiceChanged(final InvoiceChangedEvent event) {
+        logger().debug("onInvoiceChanged: invoiceId={}", event.invoiceId());
+        kafkaPublisherService.invoiceChanged(event.withOrigin(instanceId));
+        published.increment();
+    }
+
+    /**
+     * Verwirft nach dem Commit die per SQL geänderten Rechnungen im lokalen Cache, da Hibernate von der Änderung
+     * nichts weiß, und verteilt den Statuswechsel an die anderen Replikate.
+     *
+     * @param event Der lokale Statuswechsel
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onInvoiceStatusChanged(final InvoiceStatusChangedEvent event) {
+        logger().debug("onInvoiceStatusChanged: {} -> {}, invoices={}", event.from(), event.to(), event.invoices().size());
+        event.invoices().forEach(this::evictLocally);
+        kafkaPublisherService.invoiceStatusChanged(event.withOrigin(instanceId));
+        published.increment(event.invoices().size());
+    }
+
+    /**
+     * Verwirft nach dem Commit die Aggregate der betroffenen Personen und verteilt den Block an die anderen Replikate.
+     * Neue Rechnungen liegen in keinem Second-Level-Cache.
+     *
+     * @param event Die lokal angelegten Rechnungen
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onInvoicesCreated(final InvoicesCreatedEvent event) {
+        logger().debug("onInvoicesCreated: persons={}", event.persons().size());
+        infoPayloadCache.invalidatePersons(event.persons());
+        kafkaPublisherService.invoicesCreated(event.withOrigin(instanceId));
+        published.increment();
+    }
+
+    /**
+     * Verwirft nach dem Commit alle Rechnungen und Aggregate im lokalen Cache, da die Rechnungen der abgehängten
+     * Partition nicht einzeln bekannt sind, und verteilt das Abhängen an die anderen Replikate.
+     *
+     * @param event Die lokal abgehängte Partition
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onPartitionDetached(final InvoicePartitionDetachedEvent event) {
+        logger().debug("onPartitionDetached: partition={}", event.partition());
+        evictAllLocally();
+        kafkaPublisherService.invoicePartitionDetached(event.withOrigin(instanceId));
+        published.increment();
+    }
+
+    /**
+     * Entfernt eine von einem anderen Replikat geänderte Rechnung aus dem lokalen Cache und verwirft die davon
+     * abhängigen {@link InfoPayloadCache Aggregate}.
+     *
+     * @param event Die empfangene Änderung
+     */
+    public void evict(final InvoiceChangedEvent event) {
+        if (instanceId.equals(event.origin())) {
+            logger().trace("evict: eigenes Event übersprungen, invoiceId={}", event.invoiceId());
+            return;
+        }
+
+        if (evictLocally(event)) {
+            stale.increment();
+            logger().debug("evict: invoiceId={} origin={}", event.invoiceId(), event.origin());
+        } else {
+            absent.increment();
+        }
+    }
+
+    /**
+     * Entfernt die Rechnungen eines Statuswechsels, den ein anderes Replikat durchgeführt hat.
+     *
+     * @param event Der empfangene Statuswechsel
+     */
+    public void evict(final InvoiceStatusChangedEvent event) {
+        if (instanceId.equals(event.origin())) {
+            logger().trace("evict: eigener Statuswechsel übersprungen");
+            return;
+        }
+        event.invoices().forEach(invoice -> {
+            if (evictLocally(invoice)) {
+                stale.increment();
+            } else {
+                absent.increment();
+            }
+        });
+    }
+
+    /**
+     * Verwirft die Aggregate der Personen, für die ein anderes Replikat Rechnungen angelegt hat.
+     *
+     * @param event Die empfangenen Personen
+     */
+    public void evict(final InvoicesCreatedEvent event) {
+        if (instanceId.equals(event.origin())) {
+            logger().trace("evict: eigene neue Rechnungen übersprungen");
+            return;
+        }
+        logger().debug("evict: persons={} origin={}", event.persons().size(), event.origin());
+        infoPayloadCache.invalidatePersons(event.persons());
+    }
+
+    /**
+     * Verwirft alle Caches, nachdem ein anderes Replikat eine Partition abgehängt hat.
+     *
+     * @param event Die empfangene Partition
+     */
+    public void evict(final InvoicePartitionDetachedEvent event) {
+        if (instanceId.equals(event.origin())) {
+            logger().trace("evict: eigene Partition übersprungen");
+            return;
+        }
+        logger().debug("evict: partition={} origin={}", event.partition(), event.origin());
+        evictAllLocally();
+    }
+
+    private void evictAllLocally() {
+        infoPayloadCache.invalidateAll();
+        entityManagerFactory.getCache().evict(Invoice.class);
+    }
+
+    /**
+     * @return {@code true}, wenn die Rechnung im Second-Level-Cache lag
+     */
+    private boolean evictLocally(final InvoiceChangedEvent event) {
+        infoPayloadCache.invalidate(event);
+        final var cache = entityManagerFactory.getCache();
+        if (!cache.contains(Invoice.class, event.invoiceId())) {
+            return false;
+        }
+        cache.evict(Invoice.class, event.invoiceId());
+        return true;
+    }
+
+    private void registerRegionMetrics(final MeterRegistry meterRegistry) {
+        final var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        final ToDoubleFunction<CacheRegionStatistics> hits = s -> s == null ? 0 : s.getHitCount();
+        final ToDoubleFunction<CacheRegionStatistics> misses = s -> s == null ? 0 : s.getMissCount();
+
+        FunctionCounter.builder("invoice.cache.requests", statistics, s -> hits.applyAsDouble(region(s)))
+            .tag("result", "hit")
+            .register(meterRegistry);
+        FunctionCounter.builder("invoice.cache.requests", statistics, s -> misses.applyAsDouble(region(s)))
+            .tag("result", "miss")
+            .register(meterRegistry);
+        FunctionCounter.builder("invoice.cache.puts", statistics, s -> {
+                final var region = region(s);
+                return region == null ? 0 : region.getPutCount();
+            })
+            .register(meterRegistry);
+        Gauge.builder("invoice.cache.hit.ratio", statistics, s -> {
+                final var region = region(s);
+                final var total = hits.applyAsDouble(region) + misses.applyAsDouble(region);
+                return total == 0 ? 0 : hits.applyAsDouble(region) / total;
+            })
+            .register(meterRegistry);
+    }
+
+    private static CacheRegionStatistics region(final Statistics statistics) {
+        if (!statistics.isStatisticsEnabled()) {
+            return null;
+        }
+        try {
+            return statistics.getDomainDataRegionStatistics(Invoice.CACHE_REGION);
+        } catch (IllegalArgumentException e) {
+            // Region existiert nicht, z.B. wenn der Second-Level-Cache deaktiviert ist
+            return null;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.omnixys.invoice.service;
+
+import com.omnixys.invoice.models.events.InvoicePartitionDetachedEvent;
+import com.omnixys.invoice.tracing.LoggerPlus;
+import com.omnixys.invoice.tracing.LoggerPlusFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * Pflege der Monatspartitionen der Tabelle {@code invoice} (siehe {@code V1.6__Partition_Invoice.sql}).
+ * <p>
+ * Fehlende Partitionen für den aktuellen und die nächsten {@code app.partitions.months-ahead} Monate werden beim Start
+ * und täglich angelegt, damit neue Rechnungen nicht in {@code invoice_default} landen. Alte Monate werden per
+ * {@code DETACH PARTITION} abgehängt und bleiben als eigenständige Tabellen für die Archivierung erhalten.
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+public class InvoicePartitionService {
+    private static final Pattern PARTITION_NAME = Pattern.compile("invoice_(\\d{4}_\\d{2})");
+    private static final DateTimeFormatter PARTITION_MONTH = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private static final String PARTITIONS_SQL = """
+SELECT c.relname AS name, pg_get_expr(c.relpartbound, c.oid) AS bounds, greatest(c.reltuples, 0)::bigint AS estimated_rows
+FROM pg_inherits i
+JOIN pg_class c ON c.oid = i.inhrelid
+WHERE i.inhparent = 'invoice'::regclass
+ORDER BY c.relname
+""";
+
+    /**
+     * Nimmt die Rechnungen einer Partition aus dem Read-Model heraus, analog zum Aufbau in
+     * {@code V1.3__Person_Invoice_Stats.sql}.
+     */
+    private static final String SUBTRACT_STATS_SQL = """
+WITH archived (person_id, role, status, invoice_count, total_amount) AS (
+    SELECT issued_by, 'ISSUER', status, count(*), coalesce(sum(amount), 0)
+    FROM %1$s WHERE issued_by IS NOT NULL GROUP BY issued_by, status
+    UNION ALL
+    SELECT billed_to, 'RECIPIENT', status, count(*), coalesce(sum(amount), 0)
+    FROM %1$s WHERE billed_to IS NOT NULL GROUP BY billed_to, status
+    UNION ALL
+    SELECT issued_by, 'SELF_BILLED', status, count(*), coalesce(sum(amount), 0)
+    FROM %1$s WHERE issued_by = billed_to GROUP BY issued_by, status
+)
+UPDATE person_invoice_stats AS s
+SET invoice_count = s.invoice_count - a.invoice_count,
+    total_amount = s.total_amount - a.total_amount
+FROM archived AS a
+WHERE s.person_id = a.person_id AND s.role = a.role AND s.status = a.status
+""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final LoggerPlusFactory factory;
+    private LoggerPlus logger() {
+        return factory.getLogger(getClass());
+    }
+
+    @Value("${app.partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    /**
+     * Eine Partition der Tabelle {@code invoice}.
+     *
+     * @param name          Tabellenname
+     * @param bounds        Wertebereich, z.B. {@code FOR VALUES FROM (...) TO (...)} oder {@code DEFAULT}
+     * @param estimatedRows Geschätzte Anzahl an Zeilen laut Statistik
+     */
+    public record Partition(String name, String bounds, long estimatedRows) {
+    }
+
+    /**
+     * Ergebnis eines Archivierungslaufs.
+     *
+     * @param detached Abgehängte Partitionen
+     * @param skipped  Übersprungene Partitionen, die noch offene Rechnungen enthalten
+     * @param duration Laufzeit
+     */
+    public record DetachReport(List<String> detached, List<String> skipped, Duration duration) {
+    }
+
+    /**
+     * Liefert alle Partitionen der Tabelle {@code invoice}.
+     *
+     * @return Die Partitionen, sortiert nach Namen
+     */
+    public List<Partition> partitions() {
+        return jdbcTemplate.query(PARTITIONS_SQL, (rs, _) -> new Partition(
+            rs.getString("name"),
+            rs.getString("bounds"),
+            rs.getLong("estimated_rows")
+        ));
+    }
+
+    /**
+     * Legt fehlende Partitionen beim Start und danach täglich an. Ohne Rückgabewert, da Spring den Rückgabewert eines
+     * {@link EventListener} als neues Ereignis veröffentlichen würde.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.partitions.cron:0 15 3 * * *}")
+    public void ensurePartitionsScheduled() {
+        ensurePartitions();
+    }
+
+    /**
+     * Legt fehlende Partitionen für den aktuellen und die folgenden Monate an. Mehrere Replikate dürfen
+     * gleichzeitig aufrufen.
+     *
+     * @return Die neu angelegten Partitionen
+     */
+    public List<String> ensurePartitions() {
+        final var current = YearMonth.now();
+        final List<String> created = new ArrayList<>();
+        for (int i = 0; i <= monthsAhead; i++) {
+            final var month = current.plusMonths(i);
+            final var result = jdbcTemplate.queryForObject(
+                "SELECT create_invoice_partition(?)",
+                Boolean.class,
+                Date.valueOf(month.atDay(1))
+            );
+            if (Boolean.TRUE.equals(result)) {
+                created.add(partitionName(month));
+            }
+        }
+        if (!created.isEmpty()) {
+            logger().info("ensurePartitions: angelegt={}", created);
+        }
+        return created;
+    }
+
+    /**
+     * Hängt alle Monatspartitionen vor dem angegebenen Monat ab.
+     * <p>
+     * Partitionen mit noch nicht bezahlten Rechnungen werden übersprungen. Die Prüfung läuft unter einer
+     * {@code SHARE}-Sperre der Partition in derselben Transaktion wie das Abhängen, sodass kein gleichzeitiger
+     * Statuswechsel dazwischen landen kann. Die Rechnungen einer abgehängten Partition werden in dieser Transaktion aus
+     * {@code person_invoice_stats} herausgerechnet. {@code DETACH} ändert nur Metadaten, benötigt aber kurz eine
+     * exklusive Sperre auf {@code invoice}; wartet es länger als {@code lock_timeout}, schlägt es fehl, statt andere
+     * Zugriffe zu blockieren. Nach dem Commit verwerfen alle Replikate ihre Caches (siehe
+     * {@link InvoicePartitionDetachedEvent}).
+     * </p>
+     *
+     * @param before Erster Monat, der erhalten bleibt
+     * @return Die abgehängten und übersprungenen Partitionen
+     */
+    public DetachReport detachBefore(final YearMonth before) {
+        logger().info("detachBefore: before={}", before);
+        final var start = System.nanoTime();
+        final var transactionTemplate = new TransactionTemplate(transactionManager);
+        final List<String> detached = new ArrayList<>();
+        final List<String> skipped = new ArrayList<>();
+
+        partitions().stream()
+            .map(Partition::name)
+            .filter(name -> month(name) != null && month(name).isBefore(before))
+            .forEach(name -> {
+                final var archived = transactionTemplate.execute(_ -> {
+                    jdbcTemplate.execute("SET LOCAL lock_timeout = '5s'");
+                    // blockiert Änderungen an der Partition bis zum Commit
+                    jdbcTemplate.execute("LOCK TABLE %s IN SHARE MODE".formatted(name));
+                    final var open = jdbcTemplate.queryForObject(
+                        "SELECT EXISTS (SELECT 1 FROM %s WHERE status <> 'PAID')".formatted(name),
+                        Boolean.class
+                    );
+                    if (Boolean.TRUE.equals(open)) {
+                        return false;
+                    }
+                    jdbcTemplate.update(SUBTRACT_STATS_SQL.formatted(name));
+                    jdbcTemplate.execute("ALTER TABLE invoice DETACH PARTITION %s".formatted(name));
+                    eventPublisher.publishEvent(new InvoicePartitionDetachedEvent(name, null));
+                    return true;
+                });
+                (Boolean.TRUE.equals(archived) ? detached : skipped).add(name);
+            });
+
+        final var report = new DetachReport(detached, skipped, Duration.ofNanos(System.nanoTime() - start));
+        logger().info("detachBefore: {}", report);
+        return report;
+    }
+
+    private static String partitionName(final YearMonth month) {
+        return "invoice_" + month.format(PARTITION_MONTH);
+    }
+
+    /**
+     * @return Der Monat einer Monatspartition oder {@code null} z.B. für {@code invoice_default}
+     */
+    private static YearMonth month(final String partitionName) {
+        final var matcher = PARTITION_NAME.matcher(Objects.requireNonNull(partitionName));
+        return matcher.matches() ? YearMonth.parse(matcher.group(1), PARTITION_MONTH) : null;
+    }
+}
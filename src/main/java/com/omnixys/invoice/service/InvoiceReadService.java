@@ -1,14 +1,31 @@
 package com.omnixys.invoice.service;
 
 import com.omnixys.invoice.exception.AccessForbiddenException;
+import com.omnixys.invoice.exception.BadUserInputException;
 import com.omnixys.invoice.exception.NotFoundException;
 import com.omnixys.invoice.messaging.KafkaPublisherService;
-import com.omnixys.invoice.models.dto.PaymentDTO;
 import com.omnixys.invoice.models.entitys.Invoice;
 import com.omnixys.invoice.models.enums.InfoType;
+import com.omnixys.invoice.models.enums.InvoiceRole;
+import com.omnixys.invoice.models.enums.RevenueGranularity;
 import com.omnixys.invoice.models.enums.StatusType;
+import com.omnixys.invoice.models.inputs.SearchCriteria;
+import com.omnixys.invoice.models.dto.PaymentInfoDTO;
+import com.omnixys.invoice.models.payload.AgingReport;
+import com.omnixys.invoice.models.payload.CustomerInfoResult;
 import com.omnixys.invoice.models.payload.InfoPayload;
+import com.omnixys.invoice.models.payload.InvoiceConnection;
+import com.omnixys.invoice.models.payload.InvoiceEdge;
+import com.omnixys.invoice.models.payload.InvoiceResult;
+import com.omnixys.invoice.models.payload.PageInfo;
+import com.omnixys.invoice.models.payload.RevenuePeriod;
+import com.omnixys.invoice.repository.AgingRow;
+import com.omnixys.invoice.repository.CustomerInvoiceQuery;
+import com.omnixys.invoice.repository.InvoiceCursor;
+import com.omnixys.invoice.repository.InvoicePaymentRepository;
 import com.omnixys.invoice.repository.InvoiceRepository;
+import com.omnixys.invoice.repository.InvoiceRevenueRollupRepository;
+import com.omnixys.invoice.repository.RevenueRow;
 import com.omnixys.invoice.repository.SpecificationBuilder;
 import com.omnixys.invoice.security.CustomUserDetails;
 import com.omnixys.invoice.security.enums.RoleType;
@@ -21,36 +38,51 @@ import io.opentelemetry.context.Scope;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.jpa.domain.Specification;
-import org.springframework.graphql.client.FieldAccessException;
-import org.springframework.graphql.client.GraphQlTransportException;
-import org.springframework.graphql.client.HttpGraphQlClient;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import static com.omnixys.invoice.models.enums.InvoiceRole.ISSUER;
+import static com.omnixys.invoice.models.enums.InvoiceRole.RECIPIENT;
+import static com.omnixys.invoice.repository.SpecificationBuilder.KEYSET_SORT;
 import static com.omnixys.invoice.security.enums.RoleType.ADMIN;
 import static com.omnixys.invoice.security.enums.RoleType.USER;
-import static org.springframework.http.HttpHeaders.AUTHORIZATION;
+import static com.omnixys.invoice.util.Constants.DEFAULT_PAGE_SIZE;
+import static com.omnixys.invoice.util.Constants.MAX_BATCH_SIZE;
+import static com.omnixys.invoice.util.Constants.MAX_PAGE_SIZE;
 
 @Service
 @Transactional(readOnly = true)
 @RequiredArgsConstructor
 public class InvoiceReadService {
     private final InvoiceRepository invoiceRepository;
-    private final HttpGraphQlClient graphQlClient;
+    private final InvoicePaymentRepository invoicePaymentRepository;
+    private final CustomerInvoiceQuery customerInvoiceQuery;
+    private final PaymentReadService paymentReadService;
     private final SpecificationBuilder specificationBuilder;
+    private final InvoiceStatsService invoiceStatsService;
+    private final InvoiceRevenueRollupRepository invoiceRevenueRollupRepository;
+    private final InfoPayloadCache infoPayloadCache;
     private final Tracer tracer;
     private final LoggerPlusFactory factory;
     private LoggerPlus logger() {
@@ -85,31 +117,67 @@ public class InvoiceReadService {
         }
     }
 
+    /**
+     * Findet mehrere Rechnungen mit einer Abfrage.
+     *
+     * @param ids  Die UUIDs der Rechnungen, höchstens {@link com.omnixys.invoice.util.Constants#MAX_BATCH_SIZE}
+     * @param user Der angemeldete Benutzer
+     * @return Ein Ergebnis pro angefragter ID in Anfragereihenfolge; fehlende Rechnungen ohne {@code invoice}
+     * @throws BadUserInputException Wenn zu viele IDs angefragt werden
+     */
+    @Observed(name = "invoice-service.read.find-by-ids")
+    public @NonNull List<InvoiceResult> findByIds(final List<UUID> ids, final CustomUserDetails user) {
+        Span serviceSpan = tracer.spanBuilder("invoice-service.read.find-by-ids").startSpan();
+        try (Scope serviceScope = serviceSpan.makeCurrent()) {
+            assert serviceScope != null;
+            logger().debug("findByIds: ids={} user={}", ids, user);
+            final var distinct = distinct(ids);
+            final Map<UUID, Invoice> invoices = invoiceRepository.findByIdIn(distinct.toArray(UUID[]::new)).stream()
+                .collect(Collectors.toMap(Invoice::getId, Function.identity()));
+            logger().debug("findByIds: requested={} found={}", distinct.size(), invoices.size());
+            return ids.stream()
+                .map(id -> new InvoiceResult(id, invoices.get(id)))
+                .toList();
+        } catch (Exception e) {
+            serviceSpan.recordException(e);
+            serviceSpan.setAttribute("exception.class", e.getClass().getSimpleName());
+            throw e;
+        } finally {
+            serviceSpan.end();
+        }
+    }
+
     /**
      * Findet alle Rechnungen, wenn der Benutzer berechtigt ist.
+     * <p>
+     * Sind {@code fields} angegeben, werden nur diese Spalten gelesen (siehe
+     * {@link com.omnixys.invoice.repository.InvoiceProjectionRepository}).
+     * </p>
      *
-     * @param user Der Benutzer
+     * @param searchCriteria Die Suchkriterien
+     * @param fields         Die benötigten Felder oder {@code null} für vollständige Entities
+     * @param user           Der Benutzer
      * @return Sammlung von Rechnungen
      * @throws AccessForbiddenException Wenn der Benutzer keine Berechtigung hat
      */
     @Observed(name = "invoice-service.read.find")
-    public @NonNull Collection<Invoice> find(final Map<String, List<Object>> searchCriteria, final UserDetails user) {
+    public @NonNull Collection<Invoice> find(final SearchCriteria searchCriteria, final Collection<String> fields, final UserDetails user) {
         Span serviceSpan = tracer.spanBuilder("invoice-service.read.find").startSpan();
         try (Scope serviceScope = serviceSpan.makeCurrent()) {
             assert serviceScope != null;
             validateUserRole(user);
 
-            if (searchCriteria.isEmpty()) {
-                return invoiceRepository.findAll();
+            final var specification = specificationBuilder.build(searchCriteria);
+            if (specification.isEmpty()) {
+                return fields == null ? invoiceRepository.findAll() : invoiceRepository.findAll(null, fields);
             }
 
-            final var specification = specificationBuilder
-                .build(searchCriteria)
-                .orElseThrow(() -> new NotFoundException(searchCriteria));
-            final var invoices = invoiceRepository.findAll(specification);
+            final var invoices = fields == null
+                ? invoiceRepository.findAll(specification.get())
+                : invoiceRepository.findAll(specification.get(), fields);
 
             if (invoices.isEmpty()) {
-                throw new NotFoundException(searchCriteria);
+                throw new NotFoundException(searchCriteria.toMap());
             }
 
             logger().debug("find: invoices={}", invoices);
@@ -124,7 +192,12 @@ public class InvoiceReadService {
     }
 
     @Observed(name = "invoice-service.read.find-by-customer")
-    public @NonNull List<Invoice> findByCustomer(final UUID customerId, final Map<String, List<Object>> searchCriteria, final CustomUserDetails user) {
+    public @NonNull List<Invoice> findByCustomer(
+        final UUID customerId,
+        final SearchCriteria searchCriteria,
+        final Collection<String> fields,
+        final CustomUserDetails user
+    ) {
         Span span = tracer.spanBuilder("invoice-service.read.find-by-customer").startSpan();
         try (Scope scope = span.makeCurrent()) {
             assert scope != null;
@@ -135,65 +208,171 @@ public class InvoiceReadService {
 //                throw new AccessForbiddenException("Zugriff auf fremde Rechnungen nicht erlaubt");
 //            }
 
-            // Falls kein Filter: direkte Suche nach Beteiligung
-            if (searchCriteria.isEmpty()) {
-                return invoiceRepository.findByIssuedByOrBilledTo(customerId, customerId);
+            // Aussteller- und Empfänger-Seite werden getrennt über ihre Indizes gelesen
+            final var invoices = fields == null
+                ? customerInvoiceQuery.findAll(customerId, searchCriteria)
+                : customerInvoiceQuery.findAll(customerId, searchCriteria, fields);
+
+            if (invoices.isEmpty() && searchCriteria != null && !searchCriteria.isEmpty()) {
+                throw new NotFoundException(searchCriteria.toMap());
             }
 
-            // ODER-Spezifikation: issuedBy == id ODER billedTo == id
-            final var orSpec = specificationBuilder
-                .buildOr(Map.of(
-                    "issuedBy", List.of(customerId),
-                    "billedTo", List.of(customerId)
-                ), List.of("issuedBy", "billedTo"))
-                .orElseThrow(() -> new NotFoundException("Kein Zugriff auf Rechnungen."));
+            logger().debug("findByCustomer: invoices={}", invoices);
+            return invoices;
+        } finally {
+            span.end();
+        }
+    }
 
-            // UND-Spezifikation aus den eigentlichen Kriterien
-            final var andSpec = specificationBuilder
-                .build(searchCriteria)
-                .orElseThrow(() -> new NotFoundException(searchCriteria));
 
-            final var fullSpec = Specification.where(orSpec).and(andSpec);
-            final var invoices = invoiceRepository.findAll(fullSpec);
+    /**
+     * Findet eine Seite von Rechnungen per Keyset-Pagination.
+     * <p>
+     * Im Gegensatz zu {@link #find(SearchCriteria, Collection, UserDetails)} wird pro Aufruf nur ein begrenzter Index-Bereich gelesen.
+     * Eine leere Seite ist kein Fehler.
+     * </p>
+     *
+     * @param searchCriteria Die Suchkriterien
+     * @param first          Maximale Anzahl an Einträgen (Standard {@value com.omnixys.invoice.util.Constants#DEFAULT_PAGE_SIZE})
+     * @param after          Opaker Cursor des letzten bereits gelesenen Eintrags oder {@code null}
+     * @param user           Der Benutzer
+     * @return Die Seite als Relay-Connection
+     * @throws AccessForbiddenException Wenn der Benutzer keine Berechtigung hat
+     * @throws BadUserInputException    Wenn {@code first} oder {@code after} ungültig sind
+     */
+    @Observed(name = "invoice-service.read.find-page")
+    public @NonNull InvoiceConnection findPage(
+        final SearchCriteria searchCriteria,
+        final Integer first,
+        final String after,
+        final UserDetails user
+    ) {
+        Span serviceSpan = tracer.spanBuilder("invoice-service.read.find-page").startSpan();
+        try (Scope serviceScope = serviceSpan.makeCurrent()) {
+            assert serviceScope != null;
+            logger().debug("findPage: searchCriteria={} first={} after={}", searchCriteria, first, after);
+            validateUserRole(user);
 
-            if (invoices.isEmpty()) {
-                throw new NotFoundException(searchCriteria);
-            }
+            final Specification<Invoice> specification = specificationBuilder
+                .build(searchCriteria)
+                .orElse(Specification.where(null));
+            return page((cursor, limit) -> invoiceRepository.findBy(
+                cursor == null ? specification : specification.and(specificationBuilder.seek(cursor)),
+                query -> query.sortBy(KEYSET_SORT).limit(limit).all()
+            ), first, after);
+        } catch (Exception e) {
+            serviceSpan.recordException(e);
+            serviceSpan.setAttribute("exception.class", e.getClass().getSimpleName());
+            throw e;
+        } finally {
+            serviceSpan.end();
+        }
+    }
 
-            logger().debug("findByCustomer: invoices={}", invoices);
-            return invoices;
+    /**
+     * Findet eine Seite der Rechnungen eines Kunden (als Aussteller ODER Empfänger) per Keyset-Pagination.
+     *
+     * @param customerId     Die ID des Kunden
+     * @param searchCriteria Zusätzliche Suchkriterien
+     * @param first          Maximale Anzahl an Einträgen
+     * @param after          Opaker Cursor des letzten bereits gelesenen Eintrags oder {@code null}
+     * @param user           Der Benutzer
+     * @return Die Seite als Relay-Connection
+     * @throws BadUserInputException Wenn {@code first} oder {@code after} ungültig sind
+     */
+    @Observed(name = "invoice-service.read.find-page-by-customer")
+    public @NonNull InvoiceConnection findPageByCustomer(
+        final UUID customerId,
+        final SearchCriteria searchCriteria,
+        final Integer first,
+        final String after,
+        final CustomUserDetails user
+    ) {
+        Span span = tracer.spanBuilder("invoice-service.read.find-page-by-customer").startSpan();
+        try (Scope scope = span.makeCurrent()) {
+            assert scope != null;
+            logger().debug("findPageByCustomer: customerId={} first={} after={}", customerId, first, after);
+            return page(
+                (cursor, limit) -> customerInvoiceQuery.findSlice(customerId, searchCriteria, cursor, limit),
+                first,
+                after
+            );
         } finally {
             span.end();
         }
     }
 
+    /**
+     * Liest eine Seite über die Keyset-Sortierung {@code (created DESC, id DESC)}.
+     * <p>
+     * Es wird ein Eintrag mehr als angefordert gelesen, um {@code hasNextPage} ohne COUNT-Abfrage zu bestimmen.
+     * {@code fetch} liefert zu Cursor und Limit die Zeilen in Keyset-Reihenfolge.
+     * </p>
+     */
+    private InvoiceConnection page(
+        final BiFunction<InvoiceCursor, Integer, List<Invoice>> fetch,
+        final Integer first,
+        final String after
+    ) {
+        final int size = pageSize(first);
+        final InvoiceCursor cursor;
+        try {
+            cursor = InvoiceCursor.decode(after).orElse(null);
+        } catch (IllegalArgumentException e) {
+            throw new BadUserInputException(e.getMessage());
+        }
+
+        final List<Invoice> rows = fetch.apply(cursor, size + 1);
+
+        final var hasNextPage = rows.size() > size;
+        final var edges = (hasNextPage ? rows.subList(0, size) : rows).stream()
+            .map(invoice -> new InvoiceEdge(InvoiceCursor.of(invoice).encode(), invoice))
+            .toList();
+        final var pageInfo = new PageInfo(
+            hasNextPage,
+            cursor != null,
+            edges.isEmpty() ? null : edges.getFirst().cursor(),
+            edges.isEmpty() ? null : edges.getLast().cursor()
+        );
+        logger().debug("page: size={} hasNextPage={}", edges.size(), hasNextPage);
+        return new InvoiceConnection(edges, pageInfo);
+    }
+
+    private static int pageSize(final Integer first) {
+        if (first == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (first < 1) {
+            throw new BadUserInputException("'first' muss mindestens 1 sein.");
+        }
+        return Math.min(first, MAX_PAGE_SIZE);
+    }
 
     /**
      * Berechnet Gesamtinformationen für Rechnungen anhand des Typs.
      *
      * @param infoType   Der Typ der Information (PAYMENTS oder INVOICE).
      * @param statusType Der Rechnungsstatus.
-     * @param token      JWT-Token für die Authentifizierung.
+     * @param user       Der angemeldete Benutzer, dessen JWT für den Payment-Service verwendet wird.
      * @return InfoPayload mit Gesamtanzahl und Gesamtbetrag.
      */
     @Observed(name = "invoice-service.read.total-info")
-    public InfoPayload totalInfo(final boolean isIssuer, final UUID personId, final InfoType infoType, final String statusType, final String token) {
+    public InfoPayload totalInfo(final boolean isIssuer, final UUID personId, final InfoType infoType, final String statusType, final CustomUserDetails user) {
         Span serviceSpan = tracer.spanBuilder("invoice-service.read.total-info").startSpan();
         try (Scope serviceScope = serviceSpan.makeCurrent()) {
             assert serviceScope != null;
             logger().debug("totalInfo: isIssuer={} personId={} infoType={} status={}", isIssuer, personId, infoType, statusType);
 
             final var status = StatusType.valueOf(statusType);
-
-            List<Invoice> invoices = isIssuer
-                ? invoiceRepository.findByIssuedByAndStatus(personId, status)
-                : invoiceRepository.findByBilledToAndStatus(personId, status);
-
-
-            return switch (infoType) {
-                case PAYMENTS -> calculatePaymentInfo(invoices, token);
-                case INVOICES -> calculateInvoiceInfo(invoices);
-            };
+            final var role = isIssuer ? ISSUER : RECIPIENT;
+
+            return infoPayloadCache.get(personId, cacheKey(role, infoType, status, user), () -> switch (infoType) {
+                case PAYMENTS -> calculatePaymentInfo(isIssuer
+                    ? invoiceRepository.findByIssuedByAndStatus(personId, status)
+                    : invoiceRepository.findByBilledToAndStatus(personId, status), user);
+                // Primärschlüssel-Zugriff auf das inkrementell gepflegte Read-Model
+                case INVOICES -> invoiceStatsService.info(personId, role, status);
+            });
         } catch (Exception e) {
             serviceSpan.recordException(e);
             serviceSpan.setAttribute("exception.class", e.getClass().getSimpleName());
@@ -210,22 +389,231 @@ public class InvoiceReadService {
             assert scope != null;
             logger().debug("infoByCustomer: customerId={}, infoType={}", customerId, infoType);
 
-            StatusType status = null;
-            if (statusType != null && !statusType.isBlank()) {
-                status = StatusType.valueOf(statusType);
+            final StatusType status = statusType == null || statusType.isBlank()
+                ? null
+                : StatusType.valueOf(statusType);
+
+            return infoPayloadCache.get(customerId, cacheKey(null, infoType, status, user), () -> switch (infoType) {
+                case INVOICES -> invoiceStatsService.infoByCustomer(customerId, status);
+                case PAYMENTS -> calculatePaymentInfo(
+                    customerInvoiceQuery.findAll(customerId, status),
+                    user
+                );
+            });
+        } finally {
+            span.end();
+        }
+    }
+
+    /**
+     * Berechnet Summen und Zähler für mehrere Kunden (als Aussteller ODER Empfänger) gebündelt.
+     * <p>
+     * {@code INVOICES} liest alle Kunden mit einer gruppierten Abfrage aus dem Read-Model. {@code PAYMENTS} lädt die
+     * Rechnungen und deren Zahlungs-IDs aller Kunden mit je einer Abfrage und fragt den Payment-Service einmal an.
+     * </p>
+     *
+     * @param customerIds Die Kunden, höchstens {@link com.omnixys.invoice.util.Constants#MAX_BATCH_SIZE}
+     * @param infoType    Die Art des Aggregats
+     * @param statusType  Optionaler Status
+     * @param user        Der angemeldete Benutzer
+     * @return Ein Ergebnis pro angefragtem Kunden in Anfragereihenfolge
+     * @throws BadUserInputException Wenn zu viele Kunden angefragt werden
+     */
+    @Observed(name = "invoice-service.read.info-by-customers")
+    public List<CustomerInfoResult> infoByCustomers(
+        final List<UUID> customerIds,
+        final InfoType infoType,
+        final String statusType,
+        final CustomUserDetails user
+    ) {
+        Span serviceSpan = tracer.spanBuilder("invoice-service.read.info-by-customers").startSpan();
+        try (Scope serviceScope = serviceSpan.makeCurrent()) {
+            assert serviceScope != null;
+            logger().debug("infoByCustomers: customerIds={}, infoType={}", customerIds, infoType);
+
+            final var distinct = distinct(customerIds);
+            final StatusType status = statusType == null || statusType.isBlank()
+                ? null
+                : StatusType.valueOf(statusType);
+            final var infos = switch (infoType) {
+                case INVOICES -> invoiceStatsService.infoByCustomers(distinct, status);
+                case PAYMENTS -> paymentInfoByCustomers(distinct, status, user);
+            };
+            return customerIds.stream()
+                .map(id -> new CustomerInfoResult(id, infos.containsKey(id), infos.getOrDefault(id, InfoPayload.EMPTY)))
+                .toList();
+        } catch (Exception e) {
+            serviceSpan.recordException(e);
+            serviceSpan.setAttribute("exception.class", e.getClass().getSimpleName());
+            throw e;
+        } finally {
+            serviceSpan.end();
+        }
+    }
+
+    /**
+     * Ordnet die Zahlungen aller Rechnungen den beteiligten angefragten Kunden zu. Rechnungen zwischen zwei
+     * angefragten Kunden zählen für beide, selbst ausgestellte nur einmal.
+     */
+    private Map<UUID, InfoPayload> paymentInfoByCustomers(
+        final Set<UUID> customerIds,
+        final StatusType status,
+        final CustomUserDetails user
+    ) {
+        final var invoices = invoiceRepository.findByCustomers(customerIds.toArray(UUID[]::new)).stream()
+            .filter(invoice -> status == null || invoice.getStatus() == status)
+            .toList();
+        if (invoices.isEmpty()) {
+            return Map.of();
+        }
+
+        final Map<UUID, List<UUID>> paymentIds = invoicePaymentRepository.findByInvoiceIdIn(
+                invoices.stream().map(Invoice::getId).toList()
+            ).stream()
+            .collect(Collectors.groupingBy(
+                payment -> payment.getId().getInvoiceId(),
+                Collectors.mapping(payment -> payment.getId().getPaymentId(), Collectors.toList())
+            ));
+        final Map<UUID, BigDecimal> amounts = paymentReadService.fetchPayments(
+                paymentIds.values().stream().flatMap(List::stream).toList(), user
+            ).stream()
+            .collect(Collectors.toMap(
+                PaymentInfoDTO::id,
+                payment -> Objects.requireNonNullElse(payment.amount(), BigDecimal.ZERO)
+            ));
+
+        final Map<UUID, InfoPayload> result = new HashMap<>();
+        invoices.forEach(invoice -> {
+            final var payload = paymentIds.getOrDefault(invoice.getId(), List.of()).stream()
+                .filter(amounts::containsKey)
+                .map(id -> new InfoPayload(1, amounts.get(id)))
+                .reduce(InfoPayload.EMPTY, InfoPayload::plus);
+            Stream.of(invoice.getIssuedBy(), invoice.getBilledTo())
+                .filter(customerIds::contains)
+                .distinct()
+                .forEach(customerId -> result.merge(customerId, payload, InfoPayload::plus));
+        });
+        return result;
+    }
+
+    private static Set<UUID> distinct(final List<UUID> ids) {
+        final var distinct = new LinkedHashSet<>(ids);
+        if (distinct.size() > MAX_BATCH_SIZE) {
+            throw new BadUserInputException("Es können höchstens %d IDs gleichzeitig angefragt werden.".formatted(MAX_BATCH_SIZE));
+        }
+        return distinct;
+    }
+
+    /**
+     * Liefert Umsätze eines Ausstellers pro Zeitraum, bezogen auf den Fälligkeitstermin der Rechnungen.
+     * <p>
+     * Ganze Monate werden bei monatsbasiertem Raster aus dem Rollup {@code invoice_revenue_rollup} gelesen. Angebrochene
+     * Monate an den Rändern sowie die Raster {@code DAY} und {@code WEEK} werden per {@code date_trunc} auf der Tabelle
+     * {@code invoice} berechnet.
+     * </p>
+     *
+     * @param personId    Der Aussteller
+     * @param from        Erster Tag (inklusive)
+     * @param to          Letzter Tag (exklusive)
+     * @param granularity Das Zeitraster
+     * @return Die Zeiträume mit Rechnungen, aufsteigend sortiert
+     * @throws BadUserInputException Wenn {@code from} nicht vor {@code to} liegt
+     */
+    @Observed(name = "invoice-service.read.revenue-by-period")
+    public List<RevenuePeriod> revenueByPeriod(
+        final UUID personId,
+        final LocalDate from,
+        final LocalDate to,
+        final RevenueGranularity granularity
+    ) {
+        Span serviceSpan = tracer.spanBuilder("invoice-service.read.revenue-by-period").startSpan();
+        try (Scope serviceScope = serviceSpan.makeCurrent()) {
+            assert serviceScope != null;
+            logger().debug("revenueByPeriod: personId={} from={} to={} granularity={}", personId, from, to, granularity);
+            if (!from.isBefore(to)) {
+                throw new BadUserInputException("'from' muss vor 'to' liegen.");
             }
 
-            final var invoices = invoiceRepository.findByIssuedByOrBilledToAndOptionalStatus(customerId, customerId, status);
+            final var unit = granularity.unit();
+            final List<RevenueRow> rows = new ArrayList<>();
+            final var firstMonth = from.getDayOfMonth() == 1 ? from : from.plusMonths(1).withDayOfMonth(1);
+            final var endMonth = to.withDayOfMonth(1);
+            if (granularity.isMonthAligned() && firstMonth.isBefore(endMonth)) {
+                rows.addAll(invoiceRevenueRollupRepository.sumByPeriod(personId, firstMonth, endMonth, unit));
+                rows.addAll(sumRevenue(personId, from, firstMonth, unit));
+                rows.addAll(sumRevenue(personId, endMonth, to, unit));
+            } else {
+                rows.addAll(sumRevenue(personId, from, to, unit));
+            }
 
-            return switch (infoType) {
-                case INVOICES -> calculateInvoiceInfo(invoices);
-                case PAYMENTS -> calculatePaymentInfo(invoices, user.getToken());
-            };
+            final Map<String, Map<StatusType, InfoPayload>> periods = new TreeMap<>();
+            rows.forEach(row -> periods
+                .computeIfAbsent(row.getPeriod(), _ -> new EnumMap<>(StatusType.class))
+                .merge(StatusType.valueOf(row.getStatus()), new InfoPayload(row.getInvoiceCount(), row.getTotalAmount()), InfoPayload::plus));
+
+            final var result = periods.entrySet().stream()
+                .map(period -> new RevenuePeriod(
+                    period.getKey(),
+                    period.getValue().values().stream().reduce(InfoPayload.EMPTY, InfoPayload::plus),
+                    period.getValue().getOrDefault(StatusType.PAID, InfoPayload.EMPTY),
+                    period.getValue().getOrDefault(StatusType.OVERDUE, InfoPayload.EMPTY)
+                ))
+                .toList();
+            logger().debug("revenueByPeriod: periods={}", result.size());
+            return result;
+        } catch (Exception e) {
+            serviceSpan.recordException(e);
+            serviceSpan.setAttribute("exception.class", e.getClass().getSimpleName());
+            throw e;
         } finally {
-            span.end();
+            serviceSpan.end();
+        }
+    }
+
+    /**
+     * Berechnet die Altersstruktur der offenen Forderungen eines Ausstellers in einer Abfrage.
+     *
+     * @param issuerId Der Aussteller
+     * @return Anzahl und Summe pro Überfälligkeitsbereich; leere Bereiche mit 0
+     */
+    @Observed(name = "invoice-service.read.aging-report")
+    public AgingReport agingReport(final UUID issuerId) {
+        Span serviceSpan = tracer.spanBuilder("invoice-service.read.aging-report").startSpan();
+        try (Scope serviceScope = serviceSpan.makeCurrent()) {
+            assert serviceScope != null;
+            logger().debug("agingReport: issuerId={}", issuerId);
+
+            final var buckets = invoiceRepository.agingBuckets(issuerId, LocalDate.now()).stream()
+                .collect(Collectors.toMap(
+                    AgingRow::getBucket,
+                    row -> new InfoPayload(row.getInvoiceCount(), row.getTotalAmount())
+                ));
+            final var report = new AgingReport(
+                issuerId,
+                buckets.getOrDefault("current", InfoPayload.EMPTY),
+                buckets.getOrDefault("1-30", InfoPayload.EMPTY),
+                buckets.getOrDefault("31-60", InfoPayload.EMPTY),
+                buckets.getOrDefault("61-90", InfoPayload.EMPTY),
+                buckets.getOrDefault("90+", InfoPayload.EMPTY),
+                buckets.values().stream().reduce(InfoPayload.EMPTY, InfoPayload::plus)
+            );
+            logger().debug("agingReport: report={}", report);
+            return report;
+        } catch (Exception e) {
+            serviceSpan.recordException(e);
+            serviceSpan.setAttribute("exception.class", e.getClass().getSimpleName());
+            throw e;
+        } finally {
+            serviceSpan.end();
         }
     }
 
+    private List<RevenueRow> sumRevenue(final UUID personId, final LocalDate from, final LocalDate to, final String unit) {
+        return from.isBefore(to)
+            ? invoiceRepository.sumRevenueByPeriod(personId, from.atStartOfDay(), to.atStartOfDay(), unit)
+            : List.of();
+    }
+
     /**
      * Berechnet die Zahlungsinformationen für eine gegebene Rechnung.
      * <p>
@@ -235,33 +623,32 @@ public class InvoiceReadService {
      * </p>
      *
      * @param invoiceId Die UUID der Rechnung
-     * @param token     Das JWT-Token zur Authentifizierung gegenüber der externen GraphQL-API
+     * @param user      Der angemeldete Benutzer, dessen JWT gegenüber der externen GraphQL-API verwendet wird
      * @return Ein {@link InfoPayload} mit Anzahl und Gesamtsumme der Zahlungen
      * @throws NotFoundException Falls die Rechnung nicht existiert oder die Zahlungsabfrage fehlschlägt
      */
     @Observed(name = "invoice-service.read.payment-info")
-    public InfoPayload paymentInfo(final UUID invoiceId, final String token) {
+    public InfoPayload paymentInfo(final UUID invoiceId, final CustomUserDetails user) {
         Span serviceSpan = tracer.spanBuilder("invoice-service.read.payment-info").startSpan();
         try (Scope serviceScope = serviceSpan.makeCurrent()) {
             assert serviceScope != null;
             logger().debug("paymentInfo: invoiceId={}", invoiceId);
 
-            Invoice invoice = invoiceRepository.findById(invoiceId)
-                .orElseThrow(() -> new NotFoundException(invoiceId));
-
-            logger().debug("paymentInfo: invoice={}", invoice);
-
-            List<PaymentDTO> payments = invoice.getPayments() != null
-                ? fetchPayments(invoice.getPayments(), token)
-                : Collections.emptyList();
+            final var payload = infoPayloadCache.get(invoiceId, user.getUsername(), () -> {
+                if (!invoiceRepository.existsById(invoiceId)) {
+                    throw new NotFoundException(invoiceId);
+                }
 
-            logger().debug("paymentInfo: payments={}", payments);
+                final var paymentIds = invoicePaymentRepository.findPaymentIdsByInvoiceId(invoiceId);
+                logger().debug("paymentInfo: paymentIds={}", paymentIds.size());
 
-            BigDecimal totalAmount = payments.stream()
-                .map(PaymentDTO::amount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+                return paymentIds.isEmpty()
+                    ? new InfoPayload(0, BigDecimal.ZERO)
+                    : paymentReadService.summarize(paymentIds, user);
+            });
 
-            return new InfoPayload(payments.size(), totalAmount);
+            logger().debug("paymentInfo: payload={}", payload);
+            return payload;
         } catch (Exception e) {
             serviceSpan.recordException(e);
             serviceSpan.setAttribute("exception.class", e.getClass().getSimpleName());
@@ -272,42 +659,35 @@ public class InvoiceReadService {
     }
 
     /**
-     * Berechnet die Gesamtanzahl und Summe aller Rechnungen.
-     *
-     * @param invoices Liste der Rechnungen.
-     * @return InfoPayload mit Gesamtanzahl und Gesamtbetrag.
+     * Schlüssel für {@link InfoPayloadCache}: Zahlungsaggregate hängen von der Sicht des Aufrufers beim
+     * Payment-Service ab und werden daher pro Benutzer abgelegt.
      */
-    private InfoPayload calculateInvoiceInfo(List<Invoice> invoices) {
-        int count = invoices.size();
-        BigDecimal totalAmount = invoices.stream()
-            .map(Invoice::getAmount)
-            .filter(Objects::nonNull)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        return new InfoPayload(count, totalAmount);
+    private static InfoPayloadCache.Key cacheKey(
+        final InvoiceRole role,
+        final InfoType infoType,
+        final StatusType status,
+        final CustomUserDetails user
+    ) {
+        return new InfoPayloadCache.Key(role, infoType, status, infoType == InfoType.PAYMENTS ? user.getUsername() : null);
     }
 
     /**
      * Berechnet die Gesamtanzahl und Summe aller Zahlungen in Rechnungen.
      *
      * @param invoices Liste der Rechnungen.
-     * @param token    JWT-Token für die GraphQL-Abfrage.
+     * @param user     Der angemeldete Benutzer, dessen JWT für die GraphQL-Abfrage verwendet wird.
      * @return InfoPayload mit Gesamtanzahl und Gesamtbetrag.
      */
-    private InfoPayload calculatePaymentInfo(List<Invoice> invoices, String token) {
-        List<UUID> paymentIds = invoices.stream()
-            .map(Invoice::getPayments)
-            .filter(Objects::nonNull)
-            .flatMap(Collection::stream)
+    private InfoPayload calculatePaymentInfo(List<Invoice> invoices, CustomUserDetails user) {
+        final var invoiceIds = invoices.stream()
+            .map(Invoice::getId)
             .toList();
+        if (invoiceIds.isEmpty()) {
+            return new InfoPayload(0, BigDecimal.ZERO);
+        }
+        final var paymentIds = invoicePaymentRepository.findPaymentIdsByInvoiceIdIn(invoiceIds);
 
-        List<PaymentDTO> payments = fetchPayments(paymentIds, token);
-
-        BigDecimal totalAmount = payments.stream()
-            .map(PaymentDTO::amount)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        return new InfoPayload(payments.size(), totalAmount);
+        return paymentReadService.summarize(paymentIds, user);
     }
 
     /**
@@ -360,49 +740,6 @@ public class InvoiceReadService {
 //    }
 
 
-    //TODO PaymentReadService
-    /**
-     * Ruft die Zahlungsdetails zu einer Liste von Zahlungs-IDs über eine externe GraphQL-API ab.
-     * <p>
-     * Die Methode verwendet ein JWT für die Authentifizierung und erwartet eine Antwortstruktur,
-     * die den Feldern {@code id}, {@code amount} und {@code created} entspricht.
-     * </p>
-     *
-     * @param paymentIds Die Liste von Zahlungs-UUIDs
-     * @param token      Das JWT-Token zur Authentifizierung gegenüber dem externen Service
-     * @return Eine Liste von {@link PaymentDTO} mit den abgefragten Zahlungsdaten
-     * @throws NotFoundException Wenn die Anfrage fehlschlägt oder keine Daten gefunden werden
-     */
-    private List<PaymentDTO> fetchPayments(final List<UUID> paymentIds, final String token) {
-        logger().debug("fetchPayments: ids={}", paymentIds);
-
-        final String query = """
-        query Payments($id: [ID!]) {
-            payments(ids: $id) {
-                id
-                amount
-                created
-            }
-        }
-        """;
-
-        final Map<String, Object> variables = Map.of("id", paymentIds);
-
-        try {
-            return graphQlClient
-                .mutate()
-                .header(AUTHORIZATION, token)
-                .build()
-                .document(query)
-                .variables(variables)
-                .retrieveSync("payments")
-                .toEntityList(PaymentDTO.class);
-        } catch (final FieldAccessException | GraphQlTransportException ex) {
-            logger().error("fetchPayments error", ex);
-            throw new NotFoundException("Zahlungen konnten nicht abgerufen werden.");
-        }
-    }
-
 //TODO UtilService
     /**
      * Überprüft, ob der Benutzer eine gültige Rolle hat.
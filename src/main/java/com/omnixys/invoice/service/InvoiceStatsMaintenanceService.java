@@ -0,0 +1,151 @@
+package com.omnixys.invoice.service;
+
+import com.omnixys.invoice.repository.InvoiceRevenueRollupRepository;
+import com.omnixys.invoice.repository.PersonInvoiceStatsRepository;
+import com.omnixys.invoice.tracing.LoggerPlus;
+import com.omnixys.invoice.tracing.LoggerPlusFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Neuaufbau und Prüfung der Read-Models {@code person_invoice_stats} und {@code invoice_revenue_rollup} aus der
+ * Tabelle {@code invoice}.
+ * <p>
+ * Der UUID-Raum der Personen wird anhand der ersten Hex-Ziffer in 16 Bereiche aufgeteilt, die in jeweils eigenen
+ * Transaktionen verarbeitet werden. Jede Transaktion des Neuaufbaus sperrt beide Tabellen im Modus
+ * {@code SHARE ROW EXCLUSIVE}, in derselben Reihenfolge wie {@link InvoiceStatsService}: Schreiber, die ihre Deltas
+ * bereits geschrieben haben, committen vorher und sind in der Neuberechnung enthalten; alle anderen warten und addieren
+ * ihre Deltas danach auf die neu berechneten Zeilen. Die Bereiche werden daher nacheinander neu aufgebaut, geprüft
+ * wird parallel. Im Rollup werden nur Monate mit angehängter Monatspartition betrachtet, da archivierte Monate dort
+ * bewusst erhalten bleiben.
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+public class InvoiceStatsMaintenanceService {
+    private static final int CHUNKS = 16;
+
+    private final PersonInvoiceStatsRepository statsRepository;
+    private final InvoiceRevenueRollupRepository rollupRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final LoggerPlusFactory factory;
+    private LoggerPlus logger() {
+        return factory.getLogger(getClass());
+    }
+
+    @Value("${app.stats.verify-parallelism:4}")
+    private int parallelism;
+
+    /**
+     * Ergebnis eines Neuaufbaus oder einer Prüfung.
+     *
+     * @param chunks     Anzahl der verarbeiteten Bereiche
+     * @param rows       Neu geschriebene Zeilen bzw. gefundene Abweichungen in {@code person_invoice_stats}
+     * @param rollupRows Neu geschriebene Zeilen bzw. gefundene Abweichungen in {@code invoice_revenue_rollup}
+     * @param duration   Laufzeit
+     */
+    public record Report(int chunks, long rows, long rollupRows, Duration duration) {
+    }
+
+    private record Rows(long stats, long rollup) {
+        private static final Rows NONE = new Rows(0, 0);
+    }
+
+    private record PersonRange(UUID lower, UUID upper) {
+    }
+
+    /**
+     * Berechnet die Read-Models bereichsweise neu. Gleichzeitige Schreiber warten pro Bereich höchstens bis zu dessen
+     * Commit.
+     *
+     * @return Report mit der Anzahl der geschriebenen Zeilen
+     */
+    public Report rebuild() {
+        logger().info("rebuild");
+        final var template = new TransactionTemplate(transactionManager);
+        final var report = forEachRange(1, range -> {
+            final var rows = template.execute(_ -> {
+                // gleiche Reihenfolge wie InvoiceStatsService, sonst drohen Deadlocks mit laufenden Schreibern
+                jdbcTemplate.execute("LOCK TABLE person_invoice_stats, invoice_revenue_rollup IN SHARE ROW EXCLUSIVE MODE");
+                statsRepository.deleteRange(range.lower(), range.upper());
+                rollupRepository.deleteRange(range.lower(), range.upper());
+                return new Rows(
+                    statsRepository.insertRange(range.lower(), range.upper()),
+                    rollupRepository.insertRange(range.lower(), range.upper())
+                );
+            });
+            return rows == null ? Rows.NONE : rows;
+        });
+        logger().info("rebuild: report={}", report);
+        return report;
+    }
+
+    /**
+     * Vergleicht die Read-Models bereichsweise mit einer Neuberechnung, ohne sie zu verändern.
+     *
+     * @return Report mit der Anzahl der abweichenden Zeilen
+     */
+    public Report verify() {
+        logger().info("verify: parallelism={}", parallelism);
+        final var template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        final var report = forEachRange(parallelism, range -> {
+            final var mismatches = template.execute(_ -> new Rows(
+                statsRepository.countMismatchesInRange(range.lower(), range.upper()),
+                rollupRepository.countMismatchesInRange(range.lower(), range.upper())
+            ));
+            return mismatches == null ? Rows.NONE : mismatches;
+        });
+        if (report.rows() > 0) {
+            logger().warn("verify: {} Abweichungen im Read-Model person_invoice_stats", report.rows());
+        }
+        if (report.rollupRows() > 0) {
+            logger().warn("verify: {} Abweichungen im Rollup invoice_revenue_rollup", report.rollupRows());
+        }
+        return report;
+    }
+
+    private Report forEachRange(final int threads, final Function<PersonRange, Rows> task) {
+        final var start = System.nanoTime();
+        final var ranges = IntStream.range(0, CHUNKS)
+            .mapToObj(Integer::toHexString)
+            .map(prefix -> new PersonRange(
+                UUID.fromString(prefix + "0000000-0000-0000-0000-000000000000"),
+                UUID.fromString(prefix + "fffffff-ffff-ffff-ffff-ffffffffffff")
+            ))
+            .toList();
+
+        long rows = 0;
+        long rollupRows = 0;
+        try (final var executor = Executors.newFixedThreadPool(Math.max(1, threads))) {
+            final List<Future<Rows>> futures = new ArrayList<>(ranges.size());
+            ranges.forEach(range -> futures.add(executor.submit(() -> task.apply(range))));
+            for (final Future<Rows> future : futures) {
+                final var result = future.get();
+                rows += result.stats();
+                rollupRows += result.rollup();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Verarbeitung des Read-Models wurde unterbrochen.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Verarbeitung des Read-Models fehlgeschlagen.", e.getCause());
+        }
+        return new Report(ranges.size(), rows, rollupRows, Duration.ofNanos(System.nanoTime() - start));
+    }
+}
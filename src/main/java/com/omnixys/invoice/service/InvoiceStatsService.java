@@ -0,0 +1,271 @@
+package com.omnixys.invoice.service;
+
+import com.omnixys.invoice.models.entitys.Invoice;
+import com.omnixys.invoice.models.entitys.PersonInvoiceStats;
+import com.omnixys.invoice.models.entitys.PersonInvoiceStatsId;
+import com.omnixys.invoice.models.enums.InvoiceRole;
+import com.omnixys.invoice.models.enums.StatusType;
+import com.omnixys.invoice.models.payload.InfoPayload;
+import com.omnixys.invoice.repository.CustomerInfoRow;
+import com.omnixys.invoice.repository.InvoiceRevenueRollupRepository;
+import com.omnixys.invoice.repository.PersonInvoiceStatsRepository;
+import com.omnixys.invoice.tracing.LoggerPlus;
+import com.omnixys.invoice.tracing.LoggerPlusFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static com.omnixys.invoice.models.enums.InvoiceRole.ISSUER;
+import static com.omnixys.invoice.models.enums.InvoiceRole.RECIPIENT;
+import static com.omnixys.invoice.models.enums.InvoiceRole.SELF_BILLED;
+
+/**
+ * Pflegt und liest die Read-Models {@code person_invoice_stats} und {@code invoice_revenue_rollup}.
+ * <p>
+ * Schreibende Methoden müssen innerhalb der Transaktion der eigentlichen Rechnungsänderung aufgerufen werden,
+ * damit Read-Model und Tabelle {@code invoice} konsistent bleiben.
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class InvoiceStatsService {
+    private final PersonInvoiceStatsRepository statsRepository;
+    private final InvoiceRevenueRollupRepository rollupRepository;
+    private final LoggerPlusFactory factory;
+    private LoggerPlus logger() {
+        return factory.getLogger(getClass());
+    }
+
+    /**
+     * Die für das Read-Model relevanten Werte einer Rechnung zu einem Zeitpunkt.
+     *
+     * @param issuedBy Aussteller
+     * @param billedTo Empfänger
+     * @param status   Status
+     * @param amount   Betrag
+     * @param dueDate  Fälligkeit, bestimmt den Monat im Rollup
+     */
+    public record Contribution(UUID issuedBy, UUID billedTo, StatusType status, BigDecimal amount, LocalDateTime dueDate) {
+        public static Contribution of(final Invoice invoice) {
+            return new Contribution(
+                invoice.getIssuedBy(),
+                invoice.getBilledTo(),
+                invoice.getStatus(),
+                invoice.getAmount(),
+                invoice.getDueDate()
+            );
+        }
+
+        /**
+         * @param status Der neue Status
+         * @return Dieselbe Rechnung mit geändertem Status
+         */
+        public Contribution withStatus(final StatusType status) {
+            return new Contribution(issuedBy, billedTo, status, amount, dueDate);
+        }
+    }
+
+    /**
+     * Zählt eine Rechnung zum Read-Model hinzu.
+     *
+     * @param contribution Die Werte der Rechnung
+     */
+    public void add(final Contribution contribution) {
+        apply(contribution, 1);
+    }
+
+    /**
+     * Nimmt eine Rechnung aus dem Read-Model heraus, z.B. den alten Stand vor einer Statusänderung.
+     *
+     * @param contribution Die Werte der Rechnung vor der Änderung
+     */
+    public void remove(final Contribution contribution) {
+        apply(contribution, -1);
+    }
+
+    /**
+     * Überträgt die Änderungen vieler Rechnungen auf einmal, z.B. einen Statuswechsel eines ganzen Batches.
+     * <p>
+     * Die Deltas werden pro Zeile des Read-Models summiert und in fester Schlüsselreihenfolge geschrieben, sodass
+     * gleichzeitige Batches keine Deadlocks erzeugen.
+     * </p>
+     *
+     * @param before Die Werte der Rechnungen vor der Änderung
+     * @param after  Die Werte der Rechnungen nach der Änderung
+     */
+    public void replaceAll(final Collection<Contribution> before, final Collection<Contribution> after) {
+        logger().trace("replaceAll: before={} after={}", before.size(), after.size());
+        final Map<StatsKey, Delta> deltas = new TreeMap<>();
+        final Map<RollupKey, Delta> rollup = new TreeMap<>();
+        before.forEach(contribution -> collect(deltas, rollup, contribution, -1));
+        after.forEach(contribution -> collect(deltas, rollup, contribution, 1));
+        deltas.forEach((key, delta) -> {
+            if (delta.isChange()) {
+                statsRepository.upsertDelta(key.personId(), key.role().name(), key.status().name(), delta.count(), delta.amount());
+            }
+        });
+        rollup.forEach((key, delta) -> {
+            if (delta.isChange()) {
+                rollupRepository.upsertDelta(key.issuedBy(), key.month(), key.status().name(), delta.count(), delta.amount());
+            }
+        });
+    }
+
+    /**
+     * Liefert Anzahl und Summe der Rechnungen einer Person in einer Rolle und einem Status per Primärschlüssel.
+     *
+     * @param personId Die Person
+     * @param role     {@link InvoiceRole#ISSUER} oder {@link InvoiceRole#RECIPIENT}
+     * @param status   Der Status
+     * @return InfoPayload mit Anzahl und Summe
+     */
+    @Transactional(readOnly = true)
+    public InfoPayload info(final UUID personId, final InvoiceRole role, final StatusType status) {
+        logger().trace("info: personId={} role={} status={}", personId, role, status);
+        return statsRepository.findById(new PersonInvoiceStatsId(personId, role, status))
+            .map(stats -> new InfoPayload(stats.getInvoiceCount(), stats.getTotalAmount()))
+            .orElseGet(() -> new InfoPayload(0, BigDecimal.ZERO));
+    }
+
+    /**
+     * Liefert Anzahl und Summe aller Rechnungen, an denen eine Person als Aussteller ODER Empfänger beteiligt ist.
+     * <p>
+     * Selbst ausgestellte Rechnungen werden über die Rolle {@link InvoiceRole#SELF_BILLED} nur einmal gezählt.
+     * </p>
+     *
+     * @param personId Die Person
+     * @param status   Optionaler Status; {@code null} für alle
+     * @return InfoPayload mit Anzahl und Summe
+     */
+    @Transactional(readOnly = true)
+    public InfoPayload infoByCustomer(final UUID personId, final StatusType status) {
+        logger().trace("infoByCustomer: personId={} status={}", personId, status);
+        long count = 0;
+        BigDecimal total = BigDecimal.ZERO;
+        for (final PersonInvoiceStats stats : statsRepository.findByIdPersonId(personId)) {
+            if (status != null && stats.getId().getStatus() != status) {
+                continue;
+            }
+            final var sign = stats.getId().getRole() == SELF_BILLED ? -1 : 1;
+            count += sign * stats.getInvoiceCount();
+            total = sign > 0 ? total.add(stats.getTotalAmount()) : total.subtract(stats.getTotalAmount());
+        }
+        return new InfoPayload(count, total);
+    }
+
+    /**
+     * Liefert Anzahl und Summe mehrerer Personen als Aussteller ODER Empfänger mit einer gruppierten Abfrage.
+     *
+     * @param personIds Die Personen
+     * @param status    Optionaler Status; {@code null} für alle
+     * @return InfoPayload pro Person; Personen ohne Einträge im Read-Model fehlen
+     */
+    @Transactional(readOnly = true)
+    public Map<UUID, InfoPayload> infoByCustomers(final Collection<UUID> personIds, final StatusType status) {
+        logger().trace("infoByCustomers: personIds={} status={}", personIds.size(), status);
+        return statsRepository.sumByPersonIds(personIds.toArray(UUID[]::new), status == null ? null : status.name())
+            .stream()
+            .collect(Collectors.toMap(
+                CustomerInfoRow::getPersonId,
+                row -> new InfoPayload(row.getInvoiceCount(), row.getTotalAmount())
+            ));
+    }
+
+    private static void collect(
+        final Map<StatsKey, Delta> deltas,
+        final Map<RollupKey, Delta> rollup,
+        final Contribution contribution,
+        final int sign
+    ) {
+        final var amount = Objects.requireNonNullElse(contribution.amount(), BigDecimal.ZERO);
+        final var delta = new Delta(sign, sign > 0 ? amount : amount.negate());
+
+        if (contribution.issuedBy() != null && contribution.dueDate() != null) {
+            rollup.merge(
+                new RollupKey(contribution.issuedBy(), month(contribution.dueDate()), contribution.status()),
+                delta,
+                Delta::plus
+            );
+        }
+
+        if (contribution.issuedBy() != null) {
+            deltas.merge(new StatsKey(contribution.issuedBy(), ISSUER, contribution.status()), delta, Delta::plus);
+        }
+        if (contribution.billedTo() != null) {
+            deltas.merge(new StatsKey(contribution.billedTo(), RECIPIENT, contribution.status()), delta, Delta::plus);
+        }
+        if (contribution.issuedBy() != null && contribution.issuedBy().equals(contribution.billedTo())) {
+            deltas.merge(new StatsKey(contribution.issuedBy(), SELF_BILLED, contribution.status()), delta, Delta::plus);
+        }
+    }
+
+    private record StatsKey(UUID personId, InvoiceRole role, StatusType status) implements Comparable<StatsKey> {
+        private static final Comparator<StatsKey> ORDER = Comparator
+            .comparing(StatsKey::personId)
+            .thenComparing(StatsKey::role)
+            .thenComparing(StatsKey::status);
+
+        @Override
+        public int compareTo(final StatsKey other) {
+            return ORDER.compare(this, other);
+        }
+    }
+
+    private record RollupKey(UUID issuedBy, LocalDate month, StatusType status) implements Comparable<RollupKey> {
+        private static final Comparator<RollupKey> ORDER = Comparator
+            .comparing(RollupKey::issuedBy)
+            .thenComparing(RollupKey::month)
+            .thenComparing(RollupKey::status);
+
+        @Override
+        public int compareTo(final RollupKey other) {
+            return ORDER.compare(this, other);
+        }
+    }
+
+    private record Delta(long count, BigDecimal amount) {
+        Delta plus(final Delta other) {
+            return new Delta(count + other.count, amount.add(other.amount));
+        }
+
+        boolean isChange() {
+            return count != 0 || amount.signum() != 0;
+        }
+    }
+
+    private static LocalDate month(final LocalDateTime dueDate) {
+        return dueDate.toLocalDate().withDayOfMonth(1);
+    }
+
+    private void apply(final Contribution contribution, final int sign) {
+        logger().trace("apply: contribution={} sign={}", contribution, sign);
+        final var status = contribution.status().name();
+        final var amount = Objects.requireNonNullElse(contribution.amount(), BigDecimal.ZERO);
+        final var amountDelta = sign > 0 ? amount : amount.negate();
+
+        if (contribution.issuedBy() != null) {
+            statsRepository.upsertDelta(contribution.issuedBy(), ISSUER.name(), status, sign, amountDelta);
+        }
+        if (contribution.billedTo() != null) {
+            statsRepository.upsertDelta(contribution.billedTo(), RECIPIENT.name(), status, sign, amountDelta);
+        }
+        if (contribution.issuedBy() != null && contribution.issuedBy().equals(contribution.billedTo())) {
+            statsRepository.upsertDelta(contribution.issuedBy(), SELF_BILLED.name(), status, sign, amountDelta);
+        }
+        if (contribution.issuedBy() != null && contribution.dueDate() != null) {
+            rollupRepository.upsertDelta(contribution.issuedBy(), month(contribution.dueDate()), status, sign, amountDelta);
+        }
+    }
+}
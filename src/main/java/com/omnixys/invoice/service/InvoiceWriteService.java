@@ -1,13 +1,19 @@
 package com.omnixys.invoice.service;
 
+import com.omnixys.invoice.exception.BadUserInputException;
 import com.omnixys.invoice.exception.NotFoundException;
 import com.omnixys.invoice.messaging.KafkaPublisherService;
 import com.omnixys.invoice.models.dto.NewPaymentIdDTO;
 import com.omnixys.invoice.models.dto.PaymentDTO;
 import com.omnixys.invoice.models.entitys.Invoice;
+import com.omnixys.invoice.models.events.InvoiceChangedEvent;
+import com.omnixys.invoice.models.events.InvoicesCreatedEvent;
 import com.omnixys.invoice.models.enums.StatusType;
+import com.omnixys.invoice.models.payload.CreateInvoiceResult;
+import com.omnixys.invoice.repository.InvoicePaymentRepository;
 import com.omnixys.invoice.repository.InvoiceRepository;
 import com.omnixys.invoice.security.CustomUserDetails;
+import com.omnixys.invoice.service.InvoiceStatsService.Contribution;
 import com.omnixys.invoice.tracing.LoggerPlus;
 import com.omnixys.invoice.tracing.LoggerPlusFactory;
 import io.micrometer.observation.annotation.Observed;
@@ -15,10 +21,18 @@ import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.Tracer;
 import io.opentelemetry.context.Scope;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.UUID;
 import java.util.regex.Pattern;
 
@@ -31,14 +45,24 @@ public class InvoiceWriteService {
     private static final Pattern VERSION_PATTERN = Pattern.compile("^\"\\d{1,3}\"$");
 
     private final InvoiceRepository invoiceRepository;
+    private final InvoicePaymentRepository invoicePaymentRepository;
     private final InvoiceReadService invoiceReadService;
+    private final InvoiceStatsService invoiceStatsService;
     private final Tracer tracer;
     private final KafkaPublisherService kafkaPublisherService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PlatformTransactionManager transactionManager;
     private final LoggerPlusFactory factory;
     private LoggerPlus logger() {
         return factory.getLogger(getClass());
     }
 
+    @Value("${app.invoices.bulk.chunk-size:1000}")
+    private int bulkChunkSize;
+
+    @Value("${app.invoices.bulk.max-size:10000}")
+    private int bulkMaxSize;
+
 
     //TODO mail an billedTo senden
     @Observed(name = "invoice-service.write.create")
@@ -50,6 +74,8 @@ public class InvoiceWriteService {
             invoice.setStatus(PENDING);
             // readService.validateUserRole(user);
             final var newInvoice = invoiceRepository.save(invoice);
+            invoiceStatsService.add(Contribution.of(newInvoice));
+            eventPublisher.publishEvent(InvoiceChangedEvent.of(newInvoice));
             logger().debug("create: newInvoice={}", newInvoice);
             return newInvoice.getId();
         } catch (Exception e) {
@@ -61,13 +87,122 @@ public class InvoiceWriteService {
         }
     }
 
+    /**
+     * Legt viele Rechnungen auf einmal an, z.B. beim Monatsabschluss.
+     * <p>
+     * Alle Einträge werden vorab geprüft; ungültige Einträge werden nicht gespeichert. Die gültigen werden in Blöcken
+     * von {@code app.invoices.bulk.chunk-size} Rechnungen in je einer eigenen Transaktion gespeichert. Die IDs vergibt
+     * Hibernate bereits beim {@code persist} ohne Datenbankzugriff, sodass die {@code INSERT}s beim Flush in
+     * JDBC-Batches ({@code hibernate.jdbc.batch_size}) gesendet werden; ein Block umfasst also mehrere Batches und
+     * sollte ein Vielfaches der Batchgröße sein. Scheitert ein Block, wird er Rechnung für Rechnung wiederholt, damit
+     * nur die fehlerhaften Einträge scheitern.
+     * </p>
+     *
+     * @param invoices Die neuen Rechnungen, höchstens {@code app.invoices.bulk.max-size}
+     * @return Ein Ergebnis pro Eintrag in Eingabereihenfolge
+     * @throws BadUserInputException Wenn zu viele Rechnungen übergeben werden
+     */
+    @Observed(name = "invoice-service.write.create-all")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<CreateInvoiceResult> createAll(final List<Invoice> invoices) {
+        Span serviceSpan = tracer.spanBuilder("invoice-service.write.create-all").startSpan();
+        try (Scope serviceScope = serviceSpan.makeCurrent()) {
+            assert serviceScope != null;
+            logger().debug("createAll: invoices={}", invoices.size());
+            if (invoices.size() > bulkMaxSize) {
+                throw new BadUserInputException("Es können höchstens %d Rechnungen gleichzeitig angelegt werden.".formatted(bulkMaxSize));
+            }
+
+            final var results = new CreateInvoiceResult[invoices.size()];
+            final List<Integer> valid = new ArrayList<>(invoices.size());
+            for (int i = 0; i < invoices.size(); i++) {
+                final var error = validate(invoices.get(i));
+                if (error == null) {
+                    valid.add(i);
+                } else {
+                    results[i] = CreateInvoiceResult.failed(i, error);
+                }
+            }
+
+            final var transactionTemplate = new TransactionTemplate(transactionManager);
+            final var chunkSize = Math.max(1, bulkChunkSize);
+            for (int from = 0; from < valid.size(); from += chunkSize) {
+                final var chunk = valid.subList(from, Math.min(from + chunkSize, valid.size()));
+                try {
+                    insert(transactionTemplate, chunk.stream().map(invoices::get).toList());
+                    chunk.forEach(i -> results[i] = CreateInvoiceResult.created(i, invoices.get(i).getId()));
+                } catch (RuntimeException e) {
+                    logger().warn("createAll: Block mit {} Rechnungen fehlgeschlagen, einzeln wiederholen: {}", chunk.size(), e.getMessage());
+                    chunk.forEach(i -> {
+                        final var invoice = invoices.get(i);
+                        try {
+                            insert(transactionTemplate, List.of(reset(invoice)));
+                            results[i] = CreateInvoiceResult.created(i, invoice.getId());
+                        } catch (RuntimeException itemException) {
+                            logger().warn("createAll: Rechnung {} fehlgeschlagen: {}", i, itemException.getMessage());
+                            results[i] = CreateInvoiceResult.failed(i, "Die Rechnung konnte nicht gespeichert werden.");
+                        }
+                    });
+                }
+            }
+
+            logger().debug("createAll: created={} failed={}", Arrays.stream(results).filter(r -> r.id() != null).count(),
+                Arrays.stream(results).filter(r -> r.id() == null).count());
+            return List.of(results);
+        } catch (Exception e) {
+            serviceSpan.recordException(e);
+            serviceSpan.setAttribute("exception.class", e.getClass().getSimpleName());
+            throw e;
+        } finally {
+            serviceSpan.end();
+        }
+    }
+
+    private void insert(final TransactionTemplate transactionTemplate, final List<Invoice> invoices) {
+        transactionTemplate.executeWithoutResult(_ -> {
+            invoices.forEach(invoice -> invoice.setStatus(PENDING));
+            invoiceRepository.saveAll(invoices);
+            invoiceRepository.flush();
+            // Read-Model einmal pro Block statt pro Rechnung fortschreiben
+            invoiceStatsService.replaceAll(List.of(), invoices.stream().map(Contribution::of).toList());
+            // ein Event pro Block: neue Rechnungen liegen in keinem Cache, nur die Aggregate der Personen veralten
+            eventPublisher.publishEvent(InvoicesCreatedEvent.of(invoices));
+        });
+    }
+
+    /**
+     * Setzt die beim zurückgerollten Versuch vergebenen Werte zurück, damit die Rechnung erneut als neu gilt.
+     */
+    private static Invoice reset(final Invoice invoice) {
+        invoice.setId(null);
+        invoice.setVersion(0);
+        return invoice;
+    }
+
+    private static String validate(final Invoice invoice) {
+        if (invoice.getAmount() == null || invoice.getAmount().signum() <= 0) {
+            return "Der Betrag muss größer als 0 sein.";
+        }
+        if (invoice.getDueDate() == null) {
+            return "Das Fälligkeitsdatum fehlt.";
+        }
+        if (invoice.getIssuedBy() == null || invoice.getBilledTo() == null) {
+            return "Aussteller und Empfänger müssen angegeben sein.";
+        }
+        return null;
+    }
+
     @Observed(name = "invoice-service.write.update")
     public Invoice update(final Invoice invoice, final UUID id, final CustomUserDetails userDetails) {
         Span serviceSpan = tracer.spanBuilder("account-service.write.update").startSpan();
         try (Scope serviceScope = serviceSpan.makeCurrent()) {
             assert serviceScope != null;
             logger().debug("update: invoice={}, id={}", invoice, id);
+            final var before = invoiceRepository.findById(id).map(Contribution::of);
             Invoice updatedInvoice = invoiceRepository.save(invoice);
+            before.ifPresent(invoiceStatsService::remove);
+            invoiceStatsService.add(Contribution.of(updatedInvoice));
+            eventPublisher.publishEvent(InvoiceChangedEvent.of(updatedInvoice));
 
             logger().debug("update: updatedInvoice={}", updatedInvoice);
             return updatedInvoice;
@@ -120,8 +255,12 @@ public class InvoiceWriteService {
             logger().debug("pay: paidNow={}", paidNow);
 
             if (paidNow.compareTo(remainingAmount) >= 0) {
+                final var before = Contribution.of(invoice);
                 invoice.setStatus(StatusType.PAID);
                 invoiceRepository.save(invoice);
+                invoiceStatsService.remove(before);
+                invoiceStatsService.add(Contribution.of(invoice));
+                eventPublisher.publishEvent(InvoiceChangedEvent.of(invoice));
                 logger().info("Rechnung {} wurde vollständig bezahlt.", invoiceId);
             } else {
                 logger().info("Teilzahlung erhalten: {} von {} noch offen.", paidNow, remainingAmount);
@@ -143,10 +282,16 @@ public class InvoiceWriteService {
         try (Scope serviceScope = serviceSpan.makeCurrent()) {
             assert serviceScope != null;
             logger().debug("finalizePayment: newPaymentIdDTO={}", newPaymentIdDTO);
-            final var invoice = invoiceRepository.findById(newPaymentIdDTO.invoiceId()).orElseThrow(() -> new NotFoundException(newPaymentIdDTO.invoiceId()));
-            invoice.addPayment(newPaymentIdDTO.paymentId()); // sicher!
-            final var newInvoice = invoiceRepository.save(invoice);
-            logger().debug("finalizePayment: newInvoice={}", newInvoice);
+            final var invoiceId = newPaymentIdDTO.invoiceId();
+            // Aussteller und Empfänger werden für die Invalidierung der Zahlungsaggregate benötigt
+            final var invoice = invoiceRepository.findById(invoiceId)
+                .orElseThrow(() -> new NotFoundException(invoiceId));
+            // nur anhängen: die Rechnungszeile selbst wird nicht neu geschrieben
+            final var inserted = invoicePaymentRepository.append(invoiceId, newPaymentIdDTO.paymentId(), newPaymentIdDTO.amount());
+            if (inserted > 0) {
+                eventPublisher.publishEvent(InvoiceChangedEvent.of(invoice));
+            }
+            logger().debug("finalizePayment: invoiceId={}, inserted={}", invoiceId, inserted);
         } catch (Exception e) {
             serviceSpan.recordException(e);
             serviceSpan.setAttribute("exception.class", e.getClass().getSimpleName());
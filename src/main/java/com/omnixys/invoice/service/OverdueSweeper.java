@@ -0,0 +1,151 @@
+package com.omnixys.invoice.service;
+
+import com.omnixys.invoice.models.events.InvoiceChangedEvent;
+import com.omnixys.invoice.models.events.InvoiceStatusChangedEvent;
+import com.omnixys.invoice.service.InvoiceStatsService.Contribution;
+import com.omnixys.invoice.tracing.LoggerPlus;
+import com.omnixys.invoice.tracing.LoggerPlusFactory;
+import io.micrometer.observation.annotation.Observed;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+import static com.omnixys.invoice.models.enums.StatusType.OVERDUE;
+import static com.omnixys.invoice.models.enums.StatusType.PENDING;
+
+/**
+ * Setzt fällige Rechnungen periodisch von {@code PENDING} auf {@code OVERDUE}.
+ * <p>
+ * Pro Batch werden höchstens {@code app.overdue.batch-size} Zeilen mit {@code FOR UPDATE SKIP LOCKED} gesperrt und in
+ * einem einzigen {@code UPDATE} umgestellt; jeder Batch läuft in einer eigenen, kurzen Transaktion. Gerade von
+ * Benutzern bearbeitete Rechnungen werden übersprungen und im nächsten Lauf erfasst. Mehrere Replikate können
+ * gleichzeitig laufen, da sie sich disjunkte Zeilen sperren.
+ * </p>
+ * <p>
+ * Die Version wird erhöht, sodass eine parallel geladene Rechnung beim Speichern mit einem Optimistic-Locking-Fehler
+ * abgewiesen wird. Read-Model, Caches und andere Replikate werden pro Batch über ein
+ * {@link InvoiceStatusChangedEvent} aktualisiert.
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.overdue", name = "enabled", matchIfMissing = true)
+public class OverdueSweeper {
+    private static final String SWEEP_SQL = """
+WITH due AS (
+    SELECT id
+    FROM invoice
+    WHERE status = 'PENDING' AND due_date < ?
+    ORDER BY due_date
+    LIMIT ?
+    FOR UPDATE SKIP LOCKED
+)
+UPDATE invoice AS i
+SET status = 'OVERDUE', version = i.version + 1, updated = ?
+FROM due
+WHERE i.id = due.id
+RETURNING i.id, i.issued_by, i.billed_to, i.amount, i.due_date
+""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final InvoiceStatsService invoiceStatsService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Tracer tracer;
+    private final LoggerPlusFactory factory;
+    private LoggerPlus logger() {
+        return factory.getLogger(getClass());
+    }
+
+    @Value("${app.overdue.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.overdue.max-batches:100}")
+    private int maxBatches;
+
+    private record Swept(UUID id, Contribution contribution) {
+    }
+
+    /**
+     * Stellt alle zum Startzeitpunkt fälligen Rechnungen in Batches um.
+     *
+     * @return Anzahl der umgestellten Rechnungen
+     */
+    @Scheduled(fixedDelayString = "${app.overdue.interval:PT5M}", initialDelayString = "${app.overdue.initial-delay:PT1M}")
+    @Observed(name = "invoice-service.write.sweep-overdue")
+    public int sweep() {
+        Span serviceSpan = tracer.spanBuilder("invoice-service.write.sweep-overdue").startSpan();
+        try (Scope serviceScope = serviceSpan.makeCurrent()) {
+            assert serviceScope != null;
+            // fester Stichtag, damit ein Lauf nicht hinter neu fällig werdenden Rechnungen herläuft
+            final var now = LocalDateTime.now();
+            final var transactionTemplate = new TransactionTemplate(transactionManager);
+
+            int total = 0;
+            int batches = 0;
+            int swept;
+            do {
+                swept = Objects.requireNonNullElse(transactionTemplate.execute(_ -> sweepBatch(now)), 0);
+                total += swept;
+                batches++;
+            } while (swept == batchSize && batches < maxBatches);
+
+            serviceSpan.setAttribute("invoice.overdue.count", total);
+            if (total > 0) {
+                logger().info("sweep: {} Rechnung(en) in {} Batch(es) auf OVERDUE gesetzt", total, batches);
+            }
+            return total;
+        } catch (Exception e) {
+            serviceSpan.recordException(e);
+            serviceSpan.setAttribute("exception.class", e.getClass().getSimpleName());
+            throw e;
+        } finally {
+            serviceSpan.end();
+        }
+    }
+
+    private int sweepBatch(final LocalDateTime now) {
+        final var timestamp = Timestamp.valueOf(now);
+        final List<Swept> swept = jdbcTemplate.query(SWEEP_SQL, (rs, _) -> new Swept(
+            rs.getObject("id", UUID.class),
+            new Contribution(
+                rs.getObject("issued_by", UUID.class),
+                rs.getObject("billed_to", UUID.class),
+                PENDING,
+                rs.getBigDecimal("amount"),
+                rs.getTimestamp("due_date").toLocalDateTime()
+            )
+        ), timestamp, batchSize, timestamp);
+        if (swept.isEmpty()) {
+            return 0;
+        }
+
+        final var before = swept.stream().map(Swept::contribution).toList();
+        final var after = before.stream()
+            .map(contribution -> contribution.withStatus(OVERDUE))
+            .toList();
+        invoiceStatsService.replaceAll(before, after);
+
+        final var invoices = swept.stream()
+            .map(s -> new InvoiceChangedEvent(s.id(), s.contribution().issuedBy(), s.contribution().billedTo(), null))
+            .toList();
+        eventPublisher.publishEvent(new InvoiceStatusChangedEvent(PENDING, OVERDUE, invoices, null));
+        logger().debug("sweepBatch: {} Rechnung(en)", swept.size());
+        return swept.size();
+    }
+}
@@ -0,0 +1,237 @@
+package com.omnixys.invoice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.omnixys.invoice.config.PaymentClientProperties;
+import com.omnixys.invoice.exception.NotFoundException;
+import com.omnixys.invoice.models.dto.PaymentInfoDTO;
+import com.omnixys.invoice.models.payload.InfoPayload;
+import com.omnixys.invoice.security.CustomUserDetails;
+import com.omnixys.invoice.tracing.LoggerPlus;
+import com.omnixys.invoice.tracing.LoggerPlusFactory;
+import io.micrometer.observation.annotation.Observed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.graphql.client.FieldAccessException;
+import org.springframework.graphql.client.GraphQlTransportException;
+import org.springframework.graphql.client.HttpGraphQlClient;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import static org.springframework.http.HttpHeaders.AUTHORIZATION;
+
+/**
+ * Lesezugriff auf Zahlungen des Payment-Service.
+ * <p>
+ * Zahlungen sind nach ihrer Erstellung unveränderlich. Bereits geladene Zahlungen werden deshalb in einem
+ * begrenzten In-Process-Cache gehalten; beim Payment-Service werden nur die noch fehlenden IDs angefragt. Da der
+ * Payment-Service pro JWT autorisiert, liegen die Zahlungen pro Benutzer im Cache (siehe {@link CacheKey}).
+ * </p>
+ * <p>
+ * Große ID-Listen werden in Blöcke von {@code app.payment.chunk-size} IDs aufgeteilt, die auf virtuellen Threads
+ * mit höchstens {@code app.payment.max-concurrency} gleichzeitigen Anfragen geladen werden.
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+public class PaymentReadService {
+    private static final String PAYMENTS_QUERY = """
+        query Payments($id: [ID!]) {
+            payments(ids: $id) {
+                id
+                amount
+                created
+            }
+        }
+        """;
+
+    private final HttpGraphQlClient graphQlClient;
+    private final Cache<CacheKey, PaymentInfoDTO> paymentCache;
+    private final PaymentClientProperties properties;
+    private final LoggerPlusFactory factory;
+    private LoggerPlus logger() {
+        return factory.getLogger(getClass());
+    }
+
+    /**
+     * Schlüssel für den Cache der Zahlungen: Eine Zahlung wird nur dem Benutzer ausgeliefert, mit dessen JWT sie
+     * geladen wurde.
+     *
+     * @param caller    Der Benutzername des Aufrufers
+     * @param paymentId Die ID der Zahlung
+     */
+    public record CacheKey(String caller, UUID paymentId) {
+    }
+
+    /**
+     * Liefert die Zahlungen zu den gegebenen IDs, bevorzugt aus dem Cache.
+     * <p>
+     * Doppelte IDs werden zusammengefasst; die Reihenfolge entspricht dem ersten Auftreten der ID.
+     * Vom Payment-Service nicht gelieferte IDs fehlen im Ergebnis.
+     * </p>
+     *
+     * @param paymentIds Die IDs der Zahlungen
+     * @param user       Der angemeldete Benutzer, dessen JWT gegenüber dem Payment-Service verwendet wird
+     * @return Die gefundenen Zahlungen
+     * @throws NotFoundException Wenn die Anfrage an den Payment-Service fehlschlägt
+     */
+    @Observed(name = "invoice-service.payment.fetch-payments")
+    public List<PaymentInfoDTO> fetchPayments(final Collection<UUID> paymentIds, final CustomUserDetails user) {
+        final var ids = new LinkedHashSet<>(paymentIds);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        final Map<UUID, PaymentInfoDTO> payments = new ConcurrentHashMap<>(cached(ids, user));
+        final var missing = ids.stream()
+            .filter(id -> !payments.containsKey(id))
+            .toList();
+        logger().debug("fetchPayments: requested={} cached={} missing={}", ids.size(), payments.size(), missing.size());
+
+        fetchMissing(missing, user, payment -> payments.put(payment.id(), payment));
+
+        return ids.stream()
+            .map(payments::get)
+            .filter(Objects::nonNull)
+            .toList();
+    }
+
+    /**
+     * Berechnet Anzahl und Summe der Zahlungen zu den gegebenen IDs.
+     * <p>
+     * Die Teilergebnisse der einzelnen Blöcke werden direkt aufsummiert, ohne alle Zahlungen gleichzeitig im
+     * Speicher zu halten.
+     * </p>
+     *
+     * @param paymentIds Die IDs der Zahlungen
+     * @param user       Der angemeldete Benutzer, dessen JWT gegenüber dem Payment-Service verwendet wird
+     * @return InfoPayload mit Anzahl und Gesamtbetrag der gefundenen Zahlungen
+     * @throws NotFoundException Wenn die Anfrage an den Payment-Service fehlschlägt
+     */
+    @Observed(name = "invoice-service.payment.summarize-payments")
+    public InfoPayload summarize(final Collection<UUID> paymentIds, final CustomUserDetails user) {
+        final var ids = new LinkedHashSet<>(paymentIds);
+        final var count = new LongAdder();
+        final var total = new AtomicReference<>(BigDecimal.ZERO);
+        final Consumer<PaymentInfoDTO> accumulator = payment -> {
+            count.increment();
+            total.accumulateAndGet(Objects.requireNonNullElse(payment.amount(), BigDecimal.ZERO), BigDecimal::add);
+        };
+
+        final var cached = cached(ids, user);
+        cached.values().forEach(accumulator);
+        final var missing = ids.stream()
+            .filter(id -> !cached.containsKey(id))
+            .toList();
+        logger().debug("summarize: requested={} cached={} missing={}", ids.size(), cached.size(), missing.size());
+
+        fetchMissing(missing, user, accumulator);
+        return new InfoPayload(count.sum(), total.get());
+    }
+
+    /**
+     * @return Die bereits für diesen Benutzer geladenen Zahlungen nach ID
+     */
+    private Map<UUID, PaymentInfoDTO> cached(final Collection<UUID> ids, final CustomUserDetails user) {
+        final Map<UUID, PaymentInfoDTO> cached = new HashMap<>();
+        paymentCache.getAllPresent(ids.stream().map(id -> new CacheKey(user.getUsername(), id)).toList())
+            .forEach((key, payment) -> cached.put(key.paymentId(), payment));
+        return cached;
+    }
+
+    /**
+     * Lädt die fehlenden Zahlungen blockweise, legt sie im Cache ab und übergibt sie dem Consumer.
+     * <p>
+     * Der Consumer wird bei mehreren Blöcken nebenläufig aufgerufen und muss threadsicher sein.
+     * </p>
+     */
+    private void fetchMissing(final List<UUID> missing, final CustomUserDetails user, final Consumer<PaymentInfoDTO> consumer) {
+        if (missing.isEmpty()) {
+            return;
+        }
+        final Consumer<List<PaymentInfoDTO>> chunkConsumer = chunk -> chunk.forEach(payment -> {
+            paymentCache.put(new CacheKey(user.getUsername(), payment.id()), payment);
+            consumer.accept(payment);
+        });
+
+        final var chunks = partition(missing, Math.max(1, properties.getChunkSize()));
+        if (chunks.size() == 1) {
+            chunkConsumer.accept(fetchRemote(chunks.getFirst(), user.getToken()));
+            return;
+        }
+
+        logger().debug("fetchMissing: chunks={} maxConcurrency={}", chunks.size(), properties.getMaxConcurrency());
+        final var permits = new Semaphore(Math.max(1, properties.getMaxConcurrency()));
+        try (final var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            final List<Future<?>> futures = new ArrayList<>(chunks.size());
+            chunks.forEach(chunk -> futures.add(executor.submit(() -> {
+                permits.acquire();
+                try {
+                    chunkConsumer.accept(fetchRemote(chunk, user.getToken()));
+                } finally {
+                    permits.release();
+                }
+                return null;
+            })));
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new NotFoundException("Zahlungen konnten nicht abgerufen werden.");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static List<List<UUID>> partition(final List<UUID> ids, final int size) {
+        final List<List<UUID>> chunks = new ArrayList<>((ids.size() + size - 1) / size);
+        for (int from = 0; from < ids.size(); from += size) {
+            chunks.add(ids.subList(from, Math.min(from + size, ids.size())));
+        }
+        return chunks;
+    }
+
+    /**
+     * Ruft die Zahlungsdetails zu einer Liste von Zahlungs-IDs über die GraphQL-API des Payment-Service ab.
+     *
+     * @param paymentIds Die Liste von Zahlungs-UUIDs
+     * @param token      Das JWT-Token zur Authentifizierung gegenüber dem externen Service
+     * @return Eine Liste von {@link PaymentInfoDTO} mit den abgefragten Zahlungsdaten
+     * @throws NotFoundException Wenn die Anfrage fehlschlägt
+     */
+    private List<PaymentInfoDTO> fetchRemote(final List<UUID> paymentIds, final String token) {
+        logger().debug("fetchRemote: ids={}", paymentIds);
+        try {
+            return graphQlClient
+                .mutate()
+                .header(AUTHORIZATION, token)
+                .build()
+                .document(PAYMENTS_QUERY)
+                .variables(Map.of("id", paymentIds))
+                .retrieveSync("payments")
+                .toEntityList(PaymentInfoDTO.class);
+        } catch (final FieldAccessException | GraphQlTransportException ex) {
+            logger().error("fetchPayments error", ex);
+            throw new NotFoundException("Zahlungen konnten nicht abgerufen werden.");
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.omnixys.invoice.util;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.RandomAccess;
+import java.util.UUID;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+
+/**
+ * Unveränderliche Liste von UUIDs, die intern als zwei {@code long}-Arrays (höher- und niederwertige Bits)
+ * gespeichert wird.
+ * <p>
+ * Pro Eintrag werden 16 Byte statt eines eigenen {@link UUID}-Objekts samt Referenz belegt. {@link UUID}-Objekte
+ * entstehen erst beim Zugriff über {@link #get(int)}; {@link #contains(Object)} und {@link #indexOf(Object)}
+ * vergleichen direkt auf den Bits.
+ * </p>
+ */
+public final class CompactUuidList extends AbstractList<UUID> implements RandomAccess {
+    private static final CompactUuidList EMPTY = new CompactUuidList(new long[0], new long[0], 0);
+
+    private final long[] mostSignificantBits;
+    private final long[] leastSignificantBits;
+    private final int size;
+
+    private CompactUuidList(final long[] mostSignificantBits, final long[] leastSignificantBits, final int size) {
+        this.mostSignificantBits = mostSignificantBits;
+        this.leastSignificantBits = leastSignificantBits;
+        this.size = size;
+    }
+
+    public static CompactUuidList empty() {
+        return EMPTY;
+    }
+
+    public static CompactUuidList of(final Collection<UUID> ids) {
+        if (ids instanceof CompactUuidList compact) {
+            return compact;
+        }
+        if (ids.isEmpty()) {
+            return EMPTY;
+        }
+        final var mostSignificantBits = new long[ids.size()];
+        final var leastSignificantBits = new long[ids.size()];
+        int index = 0;
+        for (final UUID id : ids) {
+            mostSignificantBits[index] = id.getMostSignificantBits();
+            leastSignificantBits[index] = id.getLeastSignificantBits();
+            index++;
+        }
+        return new CompactUuidList(mostSignificantBits, leastSignificantBits, index);
+    }
+
+    /**
+     * Collector für Streams, z.B. als Downstream von {@code groupingBy}.
+     * <p>
+     * Sammelt zunächst nur Referenzen und kopiert sie einmalig in Arrays passender Größe; ein direktes Wachsen der
+     * beiden {@code long}-Arrays würde pro ID ein Vielfaches allokieren.
+     * </p>
+     */
+    public static Collector<UUID, ?, CompactUuidList> collector() {
+        return Collectors.collectingAndThen(Collectors.toList(), CompactUuidList::of);
+    }
+
+    @Override
+    public UUID get(final int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return new UUID(mostSignificantBits[index], leastSignificantBits[index]);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int indexOf(final Object o) {
+        if (!(o instanceof UUID id)) {
+            return -1;
+        }
+        final var msb = id.getMostSignificantBits();
+        final var lsb = id.getLeastSignificantBits();
+        for (int i = 0; i < size; i++) {
+            if (mostSignificantBits[i] == msb && leastSignificantBits[i] == lsb) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean contains(final Object o) {
+        return indexOf(o) >= 0;
+    }
+}
@@ -13,6 +13,10 @@ public class Constants {
     public static final String ID_PATTERN = "[\\da-f]{8}-[\\da-f]{4}-[\\da-f]{4}-[\\da-f]{4}-[\\da-f]{12}";
     public static final String VERSION_NUMBER_MISSING = "Versionsnummer fehlt";
 
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+    public static final int MAX_BATCH_SIZE = 100;
+
     private static final String PAYMENT_SCHEMA_ENV = System.getenv("PAYMENT_SERVICE_SCHEMA");
     private static final String PAYMENT_HOST_ENV = System.getenv("PAYMENT_SERVICE_HOST");
     private static final String PAYMENT_PORT_ENV = System.getenv("PAYMENT_SERVICE_PORT");
@@ -0,0 +1,61 @@
+package com.omnixys.invoice.util;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Erzeugt zeitlich geordnete UUIDs der Version 7 nach RFC 9562.
+ * <p>
+ * Die oberen 48 Bit enthalten den Unix-Zeitstempel in Millisekunden, die folgenden 12 Bit ({@code rand_a}) einen
+ * Zähler innerhalb derselben Millisekunde und die unteren 62 Bit ({@code rand_b}) Zufall aus {@link SecureRandom}.
+ * Innerhalb eines Prozesses sind die erzeugten IDs streng monoton steigend; läuft der Zähler über, wird der
+ * Zeitstempel vorgezogen. Neue Zeilen landen dadurch am rechten Rand eines B-Tree-Index statt verstreut wie bei
+ * Version 4.
+ * </p>
+ * <p>
+ * Die UUIDs sind mit bestehenden IDs der Version 4 in derselben Spalte kombinierbar.
+ * </p>
+ */
+public final class UuidV7 {
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final int COUNTER_BITS = 12;
+    private static final long VERSION = 0x7000L;
+    private static final long VARIANT = 0x8000_0000_0000_0000L;
+    private static final long RAND_B_MASK = 0x3FFF_FFFF_FFFF_FFFFL;
+
+    /**
+     * Zuletzt vergebener Zeitstempel und Zähler: {@code millis << 12 | counter}.
+     */
+    private static final AtomicLong LAST = new AtomicLong();
+
+    /**
+     * Liefert die nächste UUID.
+     *
+     * @return Eine UUID der Version 7, größer als alle zuvor in diesem Prozess erzeugten
+     */
+    public static UUID next() {
+        return next(System.currentTimeMillis());
+    }
+
+    /**
+     * Liefert die nächste UUID für den angegebenen Zeitpunkt.
+     *
+     * @param currentMillis Die aktuelle Zeit in Millisekunden seit der Unix-Epoche
+     * @return Eine UUID der Version 7, größer als alle zuvor in diesem Prozess erzeugten
+     */
+    static UUID next(final long currentMillis) {
+        // Zähler zufällig in der unteren Hälfte starten, damit bei Bedarf Luft für weitere IDs derselben Millisekunde bleibt
+        final var start = currentMillis << COUNTER_BITS | RANDOM.nextInt(1 << (COUNTER_BITS - 1));
+        final var timeAndCounter = LAST.updateAndGet(last -> Math.max(start, last + 1));
+
+        final var millis = timeAndCounter >>> COUNTER_BITS;
+        final var counter = timeAndCounter & ((1 << COUNTER_BITS) - 1);
+        return new UUID(millis << 16 | VERSION | counter, VARIANT | RANDOM.nextLong() & RAND_B_MASK);
+    }
+
+    // Verhindert, dass diese Klasse instanziiert wird
+    private UuidV7() {
+        throw new UnsupportedOperationException("Diese Klasse darf nicht instanziiert werden.");
+    }
+}
@@ -0,0 +1,2 @@
+-- Keyset-Pagination: Sortierung nach (created, id) absteigend als begrenzter Index-Range-Scan
+CREATE INDEX idx_invoice_created_id ON invoice (created DESC, id DESC) TABLESPACE invoicespace;
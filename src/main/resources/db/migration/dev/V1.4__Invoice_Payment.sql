@@ -0,0 +1,21 @@
+-- Zahlungen einer Rechnung als eigene Zeilen statt komma-separierter UUIDs in invoice.payments.
+-- Neue Zahlungen werden nur angehaengt (INSERT), die Rechnungszeile bleibt unveraendert.
+-- Eine Zahlung gehoert genau zu einer Rechnung (eindeutiger Index auf payment_id).
+CREATE TABLE invoice_payment (
+                         invoice_id       UUID NOT NULL REFERENCES invoice (id) ON DELETE CASCADE,
+                         payment_id       UUID NOT NULL,
+                         amount           DECIMAL(10, 2),
+                         created          timestamp NOT NULL DEFAULT now(),
+                         PRIMARY KEY (invoice_id, payment_id) USING INDEX TABLESPACE invoicespace
+) TABLESPACE invoicespace;
+
+CREATE UNIQUE INDEX idx_invoice_payment_payment_id ON invoice_payment (payment_id) TABLESPACE invoicespace;
+
+INSERT INTO invoice_payment (invoice_id, payment_id, created)
+SELECT i.id, trim(p.payment_id)::uuid, i.updated
+FROM invoice i
+CROSS JOIN LATERAL unnest(string_to_array(i.payments, ',')) AS p(payment_id)
+WHERE i.payments IS NOT NULL AND trim(p.payment_id) <> ''
+ON CONFLICT DO NOTHING;
+
+ALTER TABLE invoice DROP COLUMN payments;
@@ -0,0 +1,12 @@
+-- Indizes passend zu den Zugriffsmustern der Repository-Abfragen:
+-- Person + Status (findByIssuedByAndStatus, findByBilledToAndStatus, optionale Status-Abfrage),
+-- amount als INCLUDE-Spalte, damit Anzahl und Summe per Index-Only-Scan berechnet werden koennen.
+CREATE INDEX idx_invoice_issued_by_status ON invoice (issued_by, status) INCLUDE (amount) TABLESPACE invoicespace;
+CREATE INDEX idx_invoice_billed_to_status ON invoice (billed_to, status) INCLUDE (amount) TABLESPACE invoicespace;
+
+-- Offene Rechnungen nach Faelligkeit (dueBefore/dueAfter); bezahlte Rechnungen werden nicht indiziert.
+CREATE INDEX idx_invoice_open_due_date ON invoice (due_date) INCLUDE (amount) TABLESPACE invoicespace WHERE status <> 'PAID';
+
+-- Durch die zusammengesetzten Indizes (gleiche fuehrende Spalte) ueberfluessig
+DROP INDEX idx_invoice_issued_by;
+DROP INDEX idx_invoice_billed_to;
@@ -0,0 +1,89 @@
+-- Rechnungen monatlich nach Faelligkeit (due_date) partitioniert, Zeilen ausserhalb der angelegten Monate landen in
+-- invoice_default. Abfragen mit dueBefore/dueAfter und der Overdue-Sweeper lesen nur die betroffenen Monate; alte
+-- Monate werden per DETACH PARTITION archiviert statt per DELETE.
+-- Der Primaerschluessel muss den Partitionsschluessel enthalten: (id, due_date). Da id allein nicht mehr per
+-- Constraint eindeutig ist, entfaellt der Fremdschluessel von invoice_payment; Rechnungen werden nicht geloescht.
+ALTER TABLE invoice_payment DROP CONSTRAINT invoice_payment_invoice_id_fkey;
+
+ALTER TABLE invoice RENAME TO invoice_unpartitioned;
+ALTER TABLE invoice_unpartitioned RENAME CONSTRAINT invoice_pkey TO invoice_unpartitioned_pkey;
+DROP INDEX idx_invoice_created_id;
+DROP INDEX idx_invoice_issued_by_status;
+DROP INDEX idx_invoice_billed_to_status;
+DROP INDEX idx_invoice_open_due_date;
+
+CREATE TABLE invoice (
+                         id               UUID NOT NULL,
+                         version          integer NOT NULL DEFAULT 1,
+                         amount          DECIMAL(10, 2),
+                         status          text NOT NULL,
+                         due_date         timestamp NOT NULL,
+                         created          timestamp NOT NULL,
+                         updated          timestamp NOT NULL,
+                         account_id       UUID,
+                         issued_by         UUID,
+                         billed_to         UUID,
+                         PRIMARY KEY (id, due_date) USING INDEX TABLESPACE invoicespace
+) PARTITION BY RANGE (due_date) TABLESPACE invoicespace;
+
+CREATE TABLE invoice_default PARTITION OF invoice DEFAULT;
+
+-- Legt die Partition invoice_YYYY_MM fuer den Monat an, falls sie fehlt; Zeilen dieses Monats aus invoice_default
+-- werden dabei verschoben. Wird von InvoicePartitionService beim Start und taeglich aufgerufen, auch von mehreren
+-- Replikaten gleichzeitig (Advisory-Lock).
+CREATE FUNCTION create_invoice_partition(month date) RETURNS boolean LANGUAGE plpgsql AS $$
+DECLARE
+    lower_bound    timestamp := date_trunc('month', month);
+    upper_bound    timestamp := date_trunc('month', month) + interval '1 month';
+    partition_name text := 'invoice_' || to_char(month, 'YYYY_MM');
+    parent_space   text;
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN false;
+    END IF;
+    PERFORM pg_advisory_xact_lock(hashtext('create_invoice_partition'));
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN false;
+    END IF;
+
+    IF EXISTS (SELECT 1 FROM invoice_default WHERE due_date >= lower_bound AND due_date < upper_bound) THEN
+        SELECT t.spcname INTO parent_space
+        FROM pg_class c JOIN pg_tablespace t ON t.oid = c.reltablespace
+        WHERE c.oid = 'invoice'::regclass;
+
+        -- ohne eigenen Tablespace liefert die Abfrage keine Zeile
+        EXECUTE format('CREATE TABLE %I (LIKE invoice INCLUDING DEFAULTS)', partition_name)
+            || CASE WHEN parent_space IS NULL THEN '' ELSE format(' TABLESPACE %I', parent_space) END;
+        EXECUTE format(
+            'WITH moved AS (DELETE FROM invoice_default WHERE due_date >= %L AND due_date < %L RETURNING *) '
+                || 'INSERT INTO %I SELECT * FROM moved',
+            lower_bound, upper_bound, partition_name);
+        EXECUTE format('ALTER TABLE invoice ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+            partition_name, lower_bound, upper_bound);
+    ELSE
+        EXECUTE format('CREATE TABLE %I PARTITION OF invoice FOR VALUES FROM (%L) TO (%L)',
+            partition_name, lower_bound, upper_bound);
+    END IF;
+    RETURN true;
+END;
+$$;
+
+-- Monate der vorhandenen Rechnungen bis drei Monate in die Zukunft
+SELECT create_invoice_partition(month::date)
+FROM generate_series(
+    date_trunc('month', coalesce((SELECT min(due_date) FROM invoice_unpartitioned), now())),
+    date_trunc('month', now()) + interval '3 months',
+    interval '1 month'
+) AS month;
+
+INSERT INTO invoice (id, version, amount, status, due_date, created, updated, account_id, issued_by, billed_to)
+SELECT id, version, amount, status, due_date, created, updated, account_id, issued_by, billed_to
+FROM invoice_unpartitioned;
+
+DROP TABLE invoice_unpartitioned;
+
+-- Indizes aus V1.2 und V1.5, jetzt als partitionierte Indizes (je Partition ein eigener Index)
+CREATE INDEX idx_invoice_created_id ON invoice (created DESC, id DESC) TABLESPACE invoicespace;
+CREATE INDEX idx_invoice_issued_by_status ON invoice (issued_by, status) INCLUDE (amount) TABLESPACE invoicespace;
+CREATE INDEX idx_invoice_billed_to_status ON invoice (billed_to, status) INCLUDE (amount) TABLESPACE invoicespace;
+CREATE INDEX idx_invoice_open_due_date ON invoice (due_date) INCLUDE (amount) TABLESPACE invoicespace WHERE status <> 'PAID';
@@ -0,0 +1,3 @@
+-- Altersstruktur offener Forderungen (agingReport): offene Rechnungen eines Ausstellers mit Faelligkeit und Betrag
+-- per Index-Only-Scan; bezahlte Rechnungen werden nicht indiziert.
+CREATE INDEX idx_invoice_open_issued_by_due_date ON invoice (issued_by, due_date) INCLUDE (amount) TABLESPACE invoicespace WHERE status <> 'PAID';
@@ -0,0 +1,22 @@
+-- Read-Model: Anzahl und Summe der Rechnungen pro Person x Rolle x Status.
+-- Wird von InvoiceWriteService in derselben Transaktion inkrementell gepflegt.
+-- Rolle SELF_BILLED zaehlt Rechnungen mit issued_by = billed_to, damit Kundensummen
+-- (ISSUER + RECIPIENT - SELF_BILLED) jede Rechnung genau einmal enthalten.
+CREATE TABLE person_invoice_stats (
+                         person_id        UUID NOT NULL,
+                         role             text NOT NULL,
+                         status           text NOT NULL,
+                         invoice_count    bigint NOT NULL DEFAULT 0,
+                         total_amount     DECIMAL(14, 2) NOT NULL DEFAULT 0,
+                         PRIMARY KEY (person_id, role, status)
+);
+
+INSERT INTO person_invoice_stats (person_id, role, status, invoice_count, total_amount)
+SELECT issued_by, 'ISSUER', status, count(*), coalesce(sum(amount), 0)
+FROM invoice WHERE issued_by IS NOT NULL GROUP BY issued_by, status
+UNION ALL
+SELECT billed_to, 'RECIPIENT', status, count(*), coalesce(sum(amount), 0)
+FROM invoice WHERE billed_to IS NOT NULL GROUP BY billed_to, status
+UNION ALL
+SELECT issued_by, 'SELF_BILLED', status, count(*), coalesce(sum(amount), 0)
+FROM invoice WHERE issued_by = billed_to GROUP BY issued_by, status;
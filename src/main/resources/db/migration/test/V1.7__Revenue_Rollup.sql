@@ -0,0 +1,17 @@
+-- Rollup: Anzahl und Summe der Rechnungen pro Aussteller x Faelligkeitsmonat x Status.
+-- Wird wie person_invoice_stats von InvoiceStatsService in derselben Transaktion inkrementell gepflegt und beim
+-- Abhaengen alter Partitionen nicht veraendert, damit Auswertungen auch archivierte Monate enthalten.
+CREATE TABLE invoice_revenue_rollup (
+                         issued_by        UUID NOT NULL,
+                         month            date NOT NULL,
+                         status           text NOT NULL,
+                         invoice_count    bigint NOT NULL DEFAULT 0,
+                         total_amount     DECIMAL(14, 2) NOT NULL DEFAULT 0,
+                         PRIMARY KEY (issued_by, month, status)
+);
+
+INSERT INTO invoice_revenue_rollup (issued_by, month, status, invoice_count, total_amount)
+SELECT issued_by, date_trunc('month', due_date)::date, status, count(*), coalesce(sum(amount), 0)
+FROM invoice
+WHERE issued_by IS NOT NULL
+GROUP BY issued_by, date_trunc('month', due_date), status;
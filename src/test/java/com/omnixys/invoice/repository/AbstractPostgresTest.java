@@ -0,0 +1,108 @@
+package com.omnixys.invoice.repository;
+
+import com.omnixys.invoice.Env;
+import org.junit.jupiter.api.BeforeAll;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Gemeinsame Grundlage der Repository-Tests gegen PostgreSQL in einem Testcontainer: Container, Umgebung, Erzeugen
+ * von Testdaten per {@code generate_series} und Zeitmessung für Benchmarks.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(AbstractPostgresTest.PostgresConfiguration.class)
+abstract class AbstractPostgresTest {
+    static final int WARMUP = 3;
+    static final int RUNS = 10;
+
+    private static final String INSERT_INVOICES = """
+INSERT INTO invoice (id, version, amount, status, due_date, created, updated, issued_by, billed_to)
+%s
+FROM generate_series(1, ?) AS g
+""";
+    private static final Set<Class<?>> POPULATED = ConcurrentHashMap.newKeySet();
+
+    @TestConfiguration(proxyBeanMethods = false)
+    static class PostgresConfiguration {
+        @Bean
+        @ServiceConnection
+        PostgreSQLContainer<?> postgresContainer() {
+            return new PostgreSQLContainer<>(DockerImageName.parse("postgres:latest"));
+        }
+    }
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void setup() {
+        new Env();
+    }
+
+    /**
+     * Ersetzt den Inhalt von {@code invoice} durch {@code rows} erzeugte Rechnungen und aktualisiert die Statistiken.
+     *
+     * @param rows   Anzahl der Rechnungen, in {@code select} als {@code g} verfügbar
+     * @param select {@code SELECT} ohne {@code FROM} mit den Werten für {@code id, version, amount, status, due_date,
+     *               created, updated, issued_by, billed_to}
+     * @param args   Parameter für die Platzhalter in {@code select}
+     */
+    void generateInvoices(final int rows, final String select, final Object... args) {
+        jdbcTemplate.execute("TRUNCATE invoice");
+        jdbcTemplate.update(INSERT_INVOICES.formatted(select), Stream.concat(Stream.of(args), Stream.of(rows)).toArray());
+        // VACUUM ist innerhalb einer Transaktion nicht erlaubt; ohne Transaktion füllt es zusätzlich die Visibility Map
+        jdbcTemplate.execute(TransactionSynchronizationManager.isActualTransactionActive() ? "ANALYZE invoice" : "VACUUM ANALYZE invoice");
+    }
+
+    /**
+     * Wie {@link #generateInvoices}, aber nur einmal pro Testklasse. Setzt voraus, dass die Testklasse ohne
+     * Transaktion läuft, damit die Daten zwischen den Tests erhalten bleiben.
+     */
+    void generateInvoicesOnce(final int rows, final String select, final Object... args) {
+        if (POPULATED.add(getClass())) {
+            generateInvoices(rows, select, args);
+        }
+    }
+
+    /**
+     * @param number Die Nummer der Person
+     * @return Die ID der Person, wie sie die Testdaten per {@code lpad(to_hex(...), 12, '0')} erzeugen
+     */
+    static UUID person(final long number) {
+        return UUID.fromString("00000000-0000-0000-0000-%012x".formatted(number));
+    }
+
+    /**
+     * Führt {@code run} {@link #WARMUP}-mal zum Aufwärmen und anschließend {@link #RUNS}-mal gemessen aus.
+     *
+     * @param run Ein Durchlauf
+     * @return Laufzeit der gemessenen Durchläufe in Millisekunden
+     */
+    static long measure(final Runnable run) {
+        for (int i = 0; i < WARMUP; i++) {
+            run.run();
+        }
+        final var start = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            run.run();
+        }
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+}
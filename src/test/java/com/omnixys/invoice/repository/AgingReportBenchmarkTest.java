@@ -0,0 +1,100 @@
+package com.omnixys.invoice.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Vergleicht {@link InvoiceRepository#agingBuckets} (ein {@code GROUP BY} in der Datenbank) gegen das Laden aller
+ * offenen Rechnungen und die Einteilung in Java.
+ * <p>
+ * Nur bei Bedarf ausführen: {@code ./mvnw test -Dbenchmark=true -Dtest=AgingReportBenchmarkTest}
+ * </p>
+ */
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class AgingReportBenchmarkTest extends AbstractPostgresTest {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AgingReportBenchmarkTest.class);
+    private static final int ROWS = 1_000_000;
+    private static final int PERSONS = 100;
+    private static final int SAMPLE = 10;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @BeforeEach
+    void populate() {
+        // Fälligkeiten von 180 Tagen überfällig bis 60 Tage in der Zukunft
+        generateInvoicesOnce(ROWS, """
+SELECT gen_random_uuid(), 1, (g % 1000) + 0.99,
+       (ARRAY['PENDING', 'PAID', 'OVERDUE'])[g % 3 + 1],
+       date_trunc('day', now()) + make_interval(days => g % 240 - 180, hours => g % 24), now(), now(),
+       ('00000000-0000-0000-0000-' || lpad(to_hex(g % ?), 12, '0'))::uuid,
+       ('00000000-0000-0000-0000-' || lpad(to_hex((g * 7 + 13) % ?), 12, '0'))::uuid
+""", PERSONS, PERSONS);
+    }
+
+    @Test
+    void agingReport() {
+        final var today = LocalDate.now();
+        final var persons = IntStream.range(0, SAMPLE)
+            .mapToObj(i -> person((long) i * (PERSONS / SAMPLE)))
+            .toList();
+
+        final Function<UUID, Map<String, BigDecimal>> groupBy = person ->
+            invoiceRepository.agingBuckets(person, today).stream()
+                .collect(Collectors.toMap(AgingRow::getBucket, AgingRow::getTotalAmount, BigDecimal::add, TreeMap::new));
+        final Function<UUID, Map<String, BigDecimal>> inJava = person -> {
+            final Map<String, BigDecimal> buckets = new TreeMap<>();
+            jdbcTemplate.query(
+                "SELECT amount, due_date FROM invoice WHERE issued_by = ? AND status <> 'PAID'",
+                rs -> {
+                    final var days = ChronoUnit.DAYS.between(rs.getTimestamp("due_date").toLocalDateTime().toLocalDate(), today);
+                    buckets.merge(bucket(days), rs.getBigDecimal("amount"), BigDecimal::add);
+                },
+                person
+            );
+            return buckets;
+        };
+
+        persons.forEach(person -> assertThat(groupBy.apply(person))
+            .as("gleiche Summen für %s", person)
+            .usingComparatorForType(BigDecimal::compareTo, BigDecimal.class)
+            .isEqualTo(inJava.apply(person)));
+
+        final var groupByMillis = measure(() -> persons.forEach(groupBy::apply));
+        final var javaMillis = measure(() -> persons.forEach(inJava::apply));
+        LOGGER.info("Aging Report: GROUP BY={} ms, Java={} ms ({} Aussteller x {} Läufe, {} Rechnungen)",
+            groupByMillis, javaMillis, SAMPLE, RUNS, ROWS);
+    }
+
+    private static String bucket(final long daysPastDue) {
+        if (daysPastDue <= 0) {
+            return "current";
+        }
+        if (daysPastDue <= 30) {
+            return "1-30";
+        }
+        if (daysPastDue <= 60) {
+            return "31-60";
+        }
+        return daysPastDue <= 90 ? "61-90" : "90+";
+    }
+}
@@ -0,0 +1,107 @@
+package com.omnixys.invoice.repository;
+
+import com.omnixys.invoice.models.entitys.Invoice;
+import com.omnixys.invoice.models.entitys.Invoice_;
+import com.omnixys.invoice.models.inputs.SearchCriteria;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Vergleicht die Kundenabfrage mit {@code issued_by = :id OR billed_to = :id} gegen {@link CustomerInvoiceQuery}.
+ * <p>
+ * Nur bei Bedarf ausführen: {@code ./mvnw test -Dbenchmark=true -Dtest=CustomerInvoiceQueryBenchmarkTest}
+ * </p>
+ */
+@Import({CustomerInvoiceQuery.class, SpecificationBuilder.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class CustomerInvoiceQueryBenchmarkTest extends AbstractPostgresTest {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CustomerInvoiceQueryBenchmarkTest.class);
+    private static final int ROWS = 500_000;
+    private static final int PERSONS = 5_000;
+    private static final int SAMPLE = 50;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+    @Autowired
+    private CustomerInvoiceQuery customerInvoiceQuery;
+    @Autowired
+    private SpecificationBuilder specificationBuilder;
+
+    @BeforeEach
+    void populate() {
+        // jede 100. Rechnung ist an den Aussteller selbst gestellt
+        generateInvoicesOnce(ROWS, """
+SELECT gen_random_uuid(), 1, (g % 1000) + 0.99,
+       (ARRAY['PENDING', 'PAID', 'OVERDUE'])[g % 3 + 1],
+       now() + make_interval(days => g % 365), now() - make_interval(secs => g), now(),
+       ('00000000-0000-0000-0000-' || lpad(to_hex(g % ?), 12, '0'))::uuid,
+       ('00000000-0000-0000-0000-' || lpad(to_hex(CASE WHEN g % 100 = 0 THEN g % ? ELSE (g * 7 + 13) % ? END), 12, '0'))::uuid
+""", PERSONS, PERSONS, PERSONS);
+    }
+
+    @Test
+    void customerWithoutCriteria() {
+        compare("ohne Kriterien", SearchCriteria.NONE);
+    }
+
+    @Test
+    void customerWithStatus() {
+        compare("status", new SearchCriteria(null, "PENDING", null, null, null, null, null, null));
+    }
+
+    @Test
+    void customerWithStatusAndAmount() {
+        compare("status + minAmount", new SearchCriteria(null, "PENDING", null, null, null, null, new BigDecimal("500"), null));
+    }
+
+    private void compare(final String label, final SearchCriteria criteria) {
+        final var persons = IntStream.range(0, SAMPLE)
+            .mapToObj(i -> person((long) i * (PERSONS / SAMPLE)))
+            .toList();
+
+        final Function<UUID, List<Invoice>> orQuery = person -> {
+            final Specification<Invoice> customer = specificationBuilder.issuedBy(person)
+                .or((root, _, cb) -> cb.equal(root.get(Invoice_.billedTo), person));
+            return invoiceRepository.findAll(specificationBuilder.build(criteria).map(customer::and).orElse(customer));
+        };
+        final Function<UUID, List<Invoice>> unionQuery = person -> customerInvoiceQuery.findAll(person, criteria);
+
+        persons.forEach(person -> {
+            final var union = unionQuery.apply(person);
+            assertThat(union).doesNotHaveDuplicates();
+            assertThat(ids(union))
+                .as("gleiche Rechnungen für %s", person)
+                .isEqualTo(ids(orQuery.apply(person)));
+        });
+
+        final var orMillis = measure(() -> persons.forEach(orQuery::apply));
+        final var unionMillis = measure(() -> persons.forEach(unionQuery::apply));
+        LOGGER.info("Kundenabfrage [{}]: OR={} ms, UNION ALL={} ms ({} Personen x {} Läufe, {} Rechnungen)",
+            label, orMillis, unionMillis, SAMPLE, RUNS, ROWS);
+    }
+
+    private static Set<UUID> ids(final List<Invoice> invoices) {
+        return invoices.stream()
+            .map(Invoice::getId)
+            .collect(Collectors.toSet());
+    }
+}
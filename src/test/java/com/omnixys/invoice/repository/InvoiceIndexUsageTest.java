@@ -0,0 +1,132 @@
+package com.omnixys.invoice.repository;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Prüft per {@code EXPLAIN}, dass die wichtigsten Repository-Abfragen die Indizes aus
+ * {@code V1.5__Access_Path_Indexes.sql} bzw. deren Partitionsindizes aus {@code V1.6__Partition_Invoice.sql} verwenden.
+ */
+class InvoiceIndexUsageTest extends AbstractPostgresTest {
+    private static final String PERSON = "00000000-0000-0000-0000-000000000007";
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void populate() {
+        // 100.000 Rechnungen für 1.000 Personen, damit der Planer realistische Statistiken hat
+        generateInvoices(100_000, """
+SELECT gen_random_uuid(), 1, (g % 1000) + 0.99,
+       (ARRAY['PENDING', 'PAID', 'OVERDUE'])[g % 3 + 1],
+       now() + make_interval(days => g % 365), now(), now(),
+       ('00000000-0000-0000-0000-' || lpad(to_hex(g % 1000), 12, '0'))::uuid,
+       ('00000000-0000-0000-0000-' || lpad(to_hex((g + 500) % 1000), 12, '0'))::uuid
+""");
+        // nur die Verfügbarkeit des Index prüfen, nicht die Kostenschätzung bei kleinen Tabellen
+        entityManager.createNativeQuery("SET LOCAL enable_seqscan = off").executeUpdate();
+    }
+
+    @Test
+    void findByIssuedByAndStatusUsesIssuerIndex() {
+        final var plan = explain("SELECT * FROM invoice WHERE issued_by = '%s' AND status = 'PENDING'".formatted(PERSON));
+        assertIndexUsed(plan, "idx_invoice_issued_by_status");
+    }
+
+    @Test
+    void findByBilledToAndStatusUsesRecipientIndex() {
+        final var plan = explain("SELECT * FROM invoice WHERE billed_to = '%s' AND status = 'PENDING'".formatted(PERSON));
+        assertIndexUsed(plan, "idx_invoice_billed_to_status");
+    }
+
+    @Test
+    void sumByIssuerAndStatusIsCoveredByIndex() {
+        final var plan = explain(
+            "SELECT count(*), sum(amount) FROM invoice WHERE issued_by = '%s' AND status = 'PAID'".formatted(PERSON)
+        );
+        assertIndexUsed(plan, "idx_invoice_issued_by_status");
+        assertThat(plan).doesNotContain("Seq Scan");
+    }
+
+    @Test
+    void customerQueryReadsBothPersonIndexes() {
+        final var plan = explain(customerQuery("findByCustomer", UUID.class));
+        assertIndexUsed(plan, "idx_invoice_issued_by_status");
+        assertIndexUsed(plan, "idx_invoice_billed_to_status");
+        assertThat(plan).doesNotContain("BitmapOr");
+    }
+
+    @Test
+    void customerQueryWithStatusReadsBothPersonIndexes() {
+        final var plan = explain(customerQuery("findByCustomerAndStatus", UUID.class, String.class)
+            .replace(":status", "'OVERDUE'"));
+        assertIndexUsed(plan, "idx_invoice_issued_by_status");
+        assertIndexUsed(plan, "idx_invoice_billed_to_status");
+        assertThat(plan).doesNotContain("BitmapOr");
+    }
+
+    @Test
+    void openInvoicesByDueDateUsePartialIndex() {
+        final var plan = explain(
+            "SELECT * FROM invoice WHERE status <> 'PAID' AND due_date < now() + interval '7 days'"
+        );
+        assertIndexUsed(plan, "idx_invoice_open_due_date");
+    }
+
+    @Test
+    void dueDateBoundsPruneOtherPartitions() {
+        final var month = YearMonth.now();
+        final var plan = explain("SELECT * FROM invoice WHERE due_date >= '%s' AND due_date < '%s'".formatted(
+            month.atDay(1), month.plusMonths(1).atDay(1)
+        ));
+        assertThat(plan)
+            .as("Ausführungsplan:%n%s", plan)
+            .contains("invoice_" + month.format(DateTimeFormatter.ofPattern("yyyy_MM")))
+            .doesNotContain("invoice_" + month.plusMonths(1).format(DateTimeFormatter.ofPattern("yyyy_MM")))
+            .doesNotContain("invoice_default");
+    }
+
+    /**
+     * Die UNION-ALL-Abfrage eines Kunden aus {@link InvoiceRepository}, wie sie auch {@link CustomerInvoiceQuery}
+     * verwendet, mit {@link #PERSON} statt {@code :personId}.
+     */
+    private static String customerQuery(final String method, final Class<?>... parameterTypes) {
+        try {
+            return InvoiceRepository.class.getMethod(method, parameterTypes).getAnnotation(Query.class).value()
+                .replace(":personId", "'%s'".formatted(PERSON));
+        } catch (final NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String explain(final String sql) {
+        final List<?> rows = entityManager.createNativeQuery("EXPLAIN " + sql).getResultList();
+        return rows.stream()
+            .map(Object::toString)
+            .collect(Collectors.joining("\n"));
+    }
+
+    private void assertIndexUsed(final String plan, final String index) {
+        // invoice ist partitioniert (V1.6): der Plan nennt die Indizes der einzelnen Partitionen
+        final List<?> partitionIndexes = entityManager.createNativeQuery("""
+SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = CAST(:index AS regclass)
+""").setParameter("index", index).getResultList();
+        final var names = Stream.concat(Stream.of(index), partitionIndexes.stream().map(Object::toString))
+            .collect(Collectors.joining("|"));
+        assertThat(plan)
+            .as("Ausführungsplan:%n%s", plan)
+            .containsPattern("(Index Only Scan|Index Scan|Bitmap Index Scan)( Backward)? (using|on) (" + names + ")\\b");
+    }
+}
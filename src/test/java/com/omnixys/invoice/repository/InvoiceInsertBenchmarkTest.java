@@ -0,0 +1,72 @@
+package com.omnixys.invoice.repository;
+
+import com.omnixys.invoice.util.UuidV7;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Vergleicht den Insert-Durchsatz mit zufälligen IDs (Version 4) gegen zeitlich geordnete IDs ({@link UuidV7}) und
+ * misst dabei Größe des Primärschlüssel-Index und erzeugtes WAL-Volumen.
+ * <p>
+ * Nur bei Bedarf ausführen: {@code ./mvnw test -Dbenchmark=true -Dtest=InvoiceInsertBenchmarkTest}
+ * </p>
+ */
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class InvoiceInsertBenchmarkTest extends AbstractPostgresTest {
+    private static final Logger LOGGER = LoggerFactory.getLogger(InvoiceInsertBenchmarkTest.class);
+    private static final int ROWS = 1_000_000;
+    private static final int BATCH = 1_000;
+    private static final String INSERT = """
+INSERT INTO invoice (id, version, amount, status, due_date, created, updated, issued_by, billed_to)
+VALUES (?, 0, ?, 'PENDING', ?, now(), now(), ?, ?)
+""";
+
+    @Test
+    void insertThroughput() {
+        final var random = insert("UUIDv4", UUID::randomUUID);
+        final var ordered = insert("UUIDv7", UuidV7::next);
+        LOGGER.info("Insert-Durchsatz: UUIDv4={} Zeilen/s, UUIDv7={} Zeilen/s ({} Rechnungen, Batches zu {})",
+            random, ordered, ROWS, BATCH);
+    }
+
+    private long insert(final String label, final Supplier<UUID> ids) {
+        jdbcTemplate.execute("TRUNCATE invoice CASCADE");
+        jdbcTemplate.execute("CHECKPOINT");
+        final var walBefore = jdbcTemplate.queryForObject("SELECT pg_current_wal_lsn()::text", String.class);
+
+        final var dueDate = Timestamp.valueOf(LocalDateTime.now());
+        final var start = System.nanoTime();
+        for (int offset = 0; offset < ROWS; offset += BATCH) {
+            final List<Object[]> rows = new ArrayList<>(BATCH);
+            for (int i = 0; i < BATCH; i++) {
+                rows.add(new Object[]{ids.get(), BigDecimal.valueOf((offset + i) % 100_000, 2), dueDate, UUID.randomUUID(), UUID.randomUUID()});
+            }
+            jdbcTemplate.batchUpdate(INSERT, rows);
+        }
+        final var millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+
+        final var walBytes = jdbcTemplate.queryForObject(
+            "SELECT pg_wal_lsn_diff(pg_current_wal_lsn(), CAST(? AS pg_lsn))", Long.class, walBefore
+        );
+        // invoice ist partitioniert: Größe aller Partitionsindizes des Primärschlüssels
+        final var indexBytes = jdbcTemplate.queryForObject(
+            "SELECT sum(pg_relation_size(relid)) FROM pg_partition_tree('invoice_pkey')", Long.class
+        );
+        LOGGER.info("{}: {} ms, Primärschlüssel-Index {} MB, WAL {} MB",
+            label, millis, indexBytes / (1024 * 1024), walBytes / (1024 * 1024));
+        return ROWS * 1_000L / millis;
+    }
+}
@@ -0,0 +1,103 @@
+package com.omnixys.invoice.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Vergleicht Allokation und verbleibenden Heap der Zahlungs-ID-Listen, wie sie die Batch-Loader in
+ * {@code InvoiceFieldResolver} aus den Zeilen von {@code invoice_payment} gruppieren: {@code ArrayList<UUID>} gegen
+ * {@link CompactUuidList}.
+ * <p>
+ * Nur bei Bedarf ausführen: {@code ./mvnw test -Dbenchmark=true -Dtest=CompactUuidListBenchmarkTest}
+ * </p>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class CompactUuidListBenchmarkTest {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CompactUuidListBenchmarkTest.class);
+    private static final int INVOICES = 50_000;
+    private static final int PAYMENTS_PER_INVOICE = 20;
+    private static final int IDS = INVOICES * PAYMENTS_PER_INVOICE;
+    private static final int WARMUP = 3;
+
+    /** Eine Zeile aus {@code invoice_payment}, wie sie der Batch-Loader erhält. */
+    private record Row(UUID invoiceId, UUID paymentId) {
+    }
+
+    @Test
+    void allocationAndRetainedHeap() {
+        final var boxed = measure("ArrayList<UUID>", Collectors.toList());
+        final var compact = measure("CompactUuidList", CompactUuidList.collector());
+        assertThat(compact).isLessThan(boxed);
+    }
+
+    /**
+     * @return Verbleibender Heap in Byte pro Zahlungs-ID
+     */
+    private static long measure(final String label, final Collector<UUID, ?, ? extends List<UUID>> downstream) {
+        for (int i = 0; i < WARMUP; i++) {
+            group(rows(), downstream);
+        }
+
+        final var rows = rows();
+        final var allocated = allocated(() -> group(rows, downstream));
+
+        final var before = usedHeap();
+        final var grouped = group(rows(), downstream);
+        final var retained = usedHeap() - before;
+        Reference.reachabilityFence(grouped);
+
+        LOGGER.info("{}: {} IDs, Allokation {} MB ({} B/ID), verbleibender Heap {} MB ({} B/ID)",
+            label, IDS, allocated / (1024 * 1024), allocated / IDS, retained / (1024 * 1024), retained / IDS);
+        return retained / IDS;
+    }
+
+    /**
+     * Gruppiert die Zahlungs-IDs pro Rechnung; die Zeilen selbst sind danach nicht mehr erreichbar.
+     */
+    private static Map<UUID, ? extends List<UUID>> group(
+        final List<Row> rows,
+        final Collector<UUID, ?, ? extends List<UUID>> downstream
+    ) {
+        return rows.stream().collect(Collectors.groupingBy(Row::invoiceId, Collectors.mapping(Row::paymentId, downstream)));
+    }
+
+    private static List<Row> rows() {
+        final List<Row> rows = new ArrayList<>(IDS);
+        for (int i = 0; i < INVOICES; i++) {
+            final var invoiceId = UuidV7.next();
+            for (int j = 0; j < PAYMENTS_PER_INVOICE; j++) {
+                rows.add(new Row(invoiceId, UuidV7.next()));
+            }
+        }
+        return rows;
+    }
+
+    private static long allocated(final Supplier<?> task) {
+        final var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final var before = threads.getCurrentThreadAllocatedBytes();
+        Reference.reachabilityFence(task.get());
+        return threads.getCurrentThreadAllocatedBytes() - before;
+    }
+
+    private static long usedHeap() {
+        final var runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,81 @@
+package com.omnixys.invoice.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UuidV7Test {
+    /** Reihenfolge, in der PostgreSQL {@code uuid}-Werte vergleicht: vorzeichenlos Byte für Byte. */
+    private static final Comparator<UUID> UNSIGNED = Comparator
+        .comparing(UUID::getMostSignificantBits, Long::compareUnsigned)
+        .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned);
+
+    @Test
+    void versionAndVariant() {
+        final var before = System.currentTimeMillis();
+        final var id = UuidV7.next();
+        final var after = System.currentTimeMillis();
+
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+        assertThat(timestamp(id)).isBetween(before, after + 1);
+    }
+
+    @Test
+    void strictlyIncreasingUnderContention() throws Exception {
+        final int threads = 8;
+        final int perThread = 20_000;
+        final var ready = new CountDownLatch(threads);
+        final List<List<UUID>> generated = new ArrayList<>();
+        try (final var executor = Executors.newFixedThreadPool(threads)) {
+            final List<Future<List<UUID>>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                final Callable<List<UUID>> task = () -> {
+                    ready.countDown();
+                    ready.await();
+                    return IntStream.range(0, perThread).mapToObj(_ -> UuidV7.next()).toList();
+                };
+                futures.add(executor.submit(task));
+            }
+            for (final var future : futures) {
+                generated.add(future.get());
+            }
+        }
+
+        generated.forEach(ids -> assertThat(ids).isSortedAccordingTo(UNSIGNED).doesNotHaveDuplicates());
+        // Zeitstempel und Zähler stammen aus einem gemeinsamen Zähler und sind daher auch threadübergreifend eindeutig
+        assertThat(generated.stream().flatMap(List::stream).map(UUID::getMostSignificantBits).distinct().count())
+            .isEqualTo((long) threads * perThread);
+    }
+
+    @Test
+    void counterOverflowAdvancesTimestamp() {
+        final var millis = System.currentTimeMillis();
+        final var ids = IntStream.rangeClosed(0, 1 << 12)
+            .mapToObj(_ -> UuidV7.next(millis))
+            .toList();
+
+        assertThat(ids).isSortedAccordingTo(UNSIGNED).doesNotHaveDuplicates();
+        assertThat(ids).allSatisfy(id -> {
+            assertThat(id.version()).isEqualTo(7);
+            assertThat(id.variant()).isEqualTo(2);
+        });
+        // 4096 weitere IDs in derselben Millisekunde überschreiten den 12-Bit-Zähler
+        assertThat(timestamp(ids.getLast())).isGreaterThan(timestamp(ids.getFirst()));
+        assertThat(timestamp(ids.getFirst())).isGreaterThanOrEqualTo(millis);
+    }
+
+    private static long timestamp(final UUID id) {
+        return id.getMostSignificantBits() >>> 16;
+    }
+}